@@ -6,18 +6,26 @@ import io.github.robertograham.fortnite2.domain.Account;
 import io.github.robertograham.fortnite2.implementation.DefaultFortnite;
 import me.vrekt.fortnitexmpp.chat.ChatResource;
 import me.vrekt.fortnitexmpp.chat.DefaultChatResource;
+import me.vrekt.fortnitexmpp.dispatch.ListenerMonitor;
 import me.vrekt.fortnitexmpp.exception.FortniteAuthenticationException;
 import me.vrekt.fortnitexmpp.exception.XMPPAuthenticationException;
 import me.vrekt.fortnitexmpp.friend.DefaultFriendResource;
 import me.vrekt.fortnitexmpp.friend.FriendResource;
+import me.vrekt.fortnitexmpp.jfr.ReconnectEvent;
+import me.vrekt.fortnitexmpp.jfr.RosterLoadedEvent;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
 import me.vrekt.fortnitexmpp.party.DefaultPartyResource;
 import me.vrekt.fortnitexmpp.party.PartyResource;
+import me.vrekt.fortnitexmpp.party.implementation.join.PartyJoinOrchestrator;
+import me.vrekt.fortnitexmpp.party.implementation.presence.PresencePublisher;
 import me.vrekt.fortnitexmpp.presence.DefaultPresenceResource;
 import me.vrekt.fortnitexmpp.presence.PresenceResource;
 import me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration;
+import me.vrekt.fortnitexmpp.recorder.StanzaRecorder;
+import me.vrekt.fortnitexmpp.roster.RosterBootstrap;
 import me.vrekt.fortnitexmpp.type.AppType;
+import me.vrekt.fortnitexmpp.type.LogCategory;
 import me.vrekt.fortnitexmpp.type.PlatformType;
-import me.vrekt.fortnitexmpp.utility.Logging;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jivesoftware.smack.ConnectionListener;
 import org.jivesoftware.smack.SmackException;
@@ -48,6 +56,7 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
     private final ScheduledExecutorService service = Executors.newScheduledThreadPool(2);
     private ScheduledFuture<?> reconnectionFuture;
     private ScheduledFuture<?> errorReconnectionFuture;
+    private ScheduledFuture<?> metricsExportFuture;
 
     // various listeners.
     private final ConnectionErrorListener errorListener = new ConnectionErrorListener();
@@ -58,6 +67,12 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
     private final List<Consumer<Void>> errorListeners = new ArrayList<>();
 
     private final FortniteXMPPConfiguration configuration;
+    private final StanzaRecorder recorder;
+    private final ListenerMonitor listenerMonitor;
+    private final RosterBootstrap rosterBootstrap;
+    private final PresencePublisher presencePublisher;
+    private final PartyJoinOrchestrator partyJoiner;
+    private final MetricsRegistry metrics = new MetricsRegistry();
 
     // fortnite related things
     private Fortnite fortnite;
@@ -98,6 +113,11 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         } catch (final IOException exception) {
             throw new FortniteAuthenticationException("Could not authenticate with Fortnite.", exception);
         }
+        recorder = new StanzaRecorder(configuration.getRecorderCapacity());
+        listenerMonitor = new ListenerMonitor(service, metrics::accountId, configuration.getListenerBudget(), configuration.getListenerBudgetTimeUnit());
+        rosterBootstrap = new RosterBootstrap(service, configuration.getRosterBatchSize(), configuration.getRosterBatchInterval(), configuration.getRosterBatchIntervalUnit());
+        presencePublisher = new PresencePublisher(service, configuration.getPresencePublishInterval(), configuration.getPresencePublishIntervalUnit(), metrics.presence());
+        partyJoiner = new PartyJoinOrchestrator(configuration.getPartyJoinTimeout(), configuration.getPartyJoinTimeoutUnit(), configuration.getPartyJoinRetries());
         failedPingListener = () -> {
             LOGGER.atSevere().log("Ping failed, attempting reconnect.");
             renewAndReconnect();
@@ -127,6 +147,11 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         } catch (final IOException exception) {
             throw new FortniteAuthenticationException("Could not authenticate with Fortnite.", exception);
         }
+        recorder = new StanzaRecorder(configuration.getRecorderCapacity());
+        listenerMonitor = new ListenerMonitor(service, metrics::accountId, configuration.getListenerBudget(), configuration.getListenerBudgetTimeUnit());
+        rosterBootstrap = new RosterBootstrap(service, configuration.getRosterBatchSize(), configuration.getRosterBatchInterval(), configuration.getRosterBatchIntervalUnit());
+        presencePublisher = new PresencePublisher(service, configuration.getPresencePublishInterval(), configuration.getPresencePublishIntervalUnit(), metrics.presence());
+        partyJoiner = new PartyJoinOrchestrator(configuration.getPartyJoinTimeout(), configuration.getPartyJoinTimeoutUnit(), configuration.getPartyJoinRetries());
         failedPingListener = () -> {
             LOGGER.atSevere().log("Ping failed, attempting reconnect.");
             renewAndReconnect();
@@ -148,11 +173,13 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
             if (!loadRoster) {
                 Roster.setRosterLoadedAtLoginDefault(false);
                 Roster.setDefaultSubscriptionMode(Roster.SubscriptionMode.manual);
-                Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Roster loading is off.");
+                if (configuration.doEnableLogging(LogCategory.CONNECTION)) LOGGER.atInfo().log("Roster loading is off.");
             }
 
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Resource ID is: " + resource);
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Initializing XMPPTCPConnection.");
+            if (configuration.doEnableLogging(LogCategory.CONNECTION)) {
+                LOGGER.atInfo().log("Resource ID is: %s", resource);
+                LOGGER.atInfo().log("Initializing XMPPTCPConnection.");
+            }
 
             connection = new XMPPTCPConnection(XMPPTCPConnectionConfiguration.builder()
                     .setUsernameAndPassword(account.accountId(), accessToken)
@@ -162,12 +189,24 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
                     .setResource(resource)
                     .build());
 
+            if (configuration.doLeanPresence()) {
+                // do not let the roster keep a copy of every presence, they are kept by the presence resource instead.
+                final var roster = Roster.getInstanceFor(connection);
+                roster.setRosterLoadedAtLogin(false);
+                roster.setNonRosterPresenceMapMaxSize(1);
+            }
+
             // removes the listener if its already added
             connection.removeConnectionListener(errorListener);
             connection.addConnectionListener(errorListener);
+            recorder.attach(connection);
+            metrics.attach(connection);
+            presencePublisher.attach(connection);
 
             connection.connect().login();
             this.user = connection.getUser();
+            metrics.registerMBeans(account.accountId());
+            exportMetricsIfAppropriate();
             // initialize or re-initialize resources
             initializeResources();
 
@@ -220,6 +259,16 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         connectListeners.clear();
 
         initializeOrDisposePings(true);
+        rosterBootstrap.cancel();
+        presencePublisher.detach();
+        recorder.detach();
+        metrics.detach();
+        metrics.unregisterMBeans();
+        listenerMonitor.close();
+        if (metricsExportFuture != null) {
+            metricsExportFuture.cancel(false);
+            metricsExportFuture = null;
+        }
         connection.disconnect();
 
         chatResource = null;
@@ -236,13 +285,30 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
      * @throws InterruptedException                 if there was interruption while loading or reloading.
      */
     private void loadRosterIfAppropriate() throws SmackException.NotConnectedException, SmackException.NotLoggedInException, InterruptedException {
-        if (configuration.doLoadRoster()) {
+        if (configuration.doLoadRoster() && !configuration.doLeanPresence()) {
+            if (configuration.doBootstrapRoster()) {
+                rosterBootstrap.start(account.accountId(), Roster.getInstanceFor(connection), presenceResource);
+                return;
+            }
+
+            final var event = new RosterLoadedEvent();
+            event.begin();
             final var roster = Roster.getInstanceFor(connection);
             if (!roster.isLoaded()) roster.reloadAndWait();
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Roster loaded.");
+            event.commit(account.accountId(), roster.getEntryCount());
+            if (configuration.doEnableLogging(LogCategory.CONNECTION)) LOGGER.atInfo().log("Roster loaded.");
         }
     }
 
+    /**
+     * Starts exporting metrics if an export period is configured and exporting has not started yet.
+     */
+    private void exportMetricsIfAppropriate() {
+        if (!configuration.doExportMetrics() || metricsExportFuture != null) return;
+        metricsExportFuture = service.scheduleAtFixedRate(metrics::export, configuration.getMetricsExportPeriod(),
+                configuration.getMetricsExportPeriod(), configuration.getMetricsExportTimeUnit());
+    }
+
     /**
      * Initializes or disposes of the ping manager.
      */
@@ -271,13 +337,13 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         }
 
         if (friendResource == null) {
-            friendResource = new DefaultFriendResource(this, configuration.doEnableLogging());
+            friendResource = new DefaultFriendResource(this);
         } else {
             friendResource.reinitialize(this);
         }
 
         if (partyResource == null) {
-            partyResource = new DefaultPartyResource(this, configuration.doEnableLogging());
+            partyResource = new DefaultPartyResource(this);
         } else {
             partyResource.reinitialize(this);
         }
@@ -305,6 +371,8 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
      * Authenticates with Fortnite again and then attempts to reconnect.
      */
     private void renewAndReconnect() {
+        final var event = new ReconnectEvent();
+        event.begin();
         reconnectListeners.forEach(consumer -> consumer.accept(null));
         LOGGER.atInfo().log("Attempting to reconnect to the XMPP service.");
         disconnectAndDispose();
@@ -313,8 +381,10 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         try {
             this.fortnite = fortniteBuilder.build();
             connect();
+            event.commit(account.accountId(), true);
         } catch (final IOException | XMPPAuthenticationException exception) {
-            LOGGER.atSevere().withCause(exception).log("Failed to reconnect, retrying in  " + configuration.getReconnectionWaitTime() + " seconds.");
+            LOGGER.atSevere().withCause(exception).log("Failed to reconnect, retrying in %d seconds.", configuration.getReconnectionWaitTime());
+            event.commit(account.accountId(), false);
             scheduleErrorReconnect();
         }
     }
@@ -329,6 +399,10 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
             friendResource.disposeConnection();
             partyResource.disposeConnection();
             presenceResource.disposeConnection();
+            rosterBootstrap.cancel();
+            presencePublisher.detach();
+            recorder.detach();
+            metrics.detach();
             connection.disconnect();
         } catch (final Exception exception) {
             LOGGER.atWarning().withCause(exception).log("Failed to close some resources.");
@@ -362,6 +436,41 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
         errorListeners.add(consumer);
     }
 
+    @Override
+    public FortniteXMPPConfiguration configuration() {
+        return configuration;
+    }
+
+    @Override
+    public StanzaRecorder recorder() {
+        return recorder;
+    }
+
+    @Override
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
+    @Override
+    public ListenerMonitor listenerMonitor() {
+        return listenerMonitor;
+    }
+
+    @Override
+    public RosterBootstrap rosterBootstrap() {
+        return rosterBootstrap;
+    }
+
+    @Override
+    public PresencePublisher presencePublisher() {
+        return presencePublisher;
+    }
+
+    @Override
+    public PartyJoinOrchestrator partyJoiner() {
+        return partyJoiner;
+    }
+
     @Override
     public Fortnite fortnite() {
         return fortnite;
@@ -410,26 +519,27 @@ public final class DefaultFortniteXMPP implements FortniteXMPP {
     private final class ConnectionErrorListener implements ConnectionListener {
         @Override
         public void connected(XMPPConnection connection) {
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Connection established.");
+            if (configuration.doEnableLogging(LogCategory.CONNECTION)) LOGGER.atInfo().log("Connection established.");
         }
 
         @Override
         public void authenticated(XMPPConnection connection, boolean resumed) {
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Connection authenticated.");
+            if (configuration.doEnableLogging(LogCategory.CONNECTION)) LOGGER.atInfo().log("Connection authenticated.");
         }
 
         @Override
         public void connectionClosed() {
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), configuration.doEnableLogging(), "Connection was closed.");
+            if (configuration.doEnableLogging(LogCategory.CONNECTION)) LOGGER.atInfo().log("Connection was closed.");
         }
 
         @Override
         public void connectionClosedOnError(Exception exception) {
-            exception.printStackTrace();
+            LOGGER.atSevere().withCause(exception).log("Connection was closed on error.");
+            recorder.dump("connection closed on error");
             errorListeners.forEach(errorListener -> errorListener.accept(null));
 
             if (configuration.doReconnectOnError()) {
-                LOGGER.atInfo().log("Attempting to reconnect in: " + configuration.getReconnectionWaitTime() + " seconds.");
+                LOGGER.atInfo().log("Attempting to reconnect in: %d seconds.", configuration.getReconnectionWaitTime());
                 scheduleErrorReconnect();
             }
         }
@@ -3,12 +3,18 @@ package me.vrekt.fortnitexmpp;
 import io.github.robertograham.fortnite2.client.Fortnite;
 import io.github.robertograham.fortnite2.implementation.DefaultFortnite;
 import me.vrekt.fortnitexmpp.chat.ChatResource;
+import me.vrekt.fortnitexmpp.dispatch.ListenerMonitor;
 import me.vrekt.fortnitexmpp.exception.FortniteAuthenticationException;
 import me.vrekt.fortnitexmpp.exception.XMPPAuthenticationException;
 import me.vrekt.fortnitexmpp.friend.FriendResource;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
 import me.vrekt.fortnitexmpp.party.PartyResource;
+import me.vrekt.fortnitexmpp.party.implementation.join.PartyJoinOrchestrator;
+import me.vrekt.fortnitexmpp.party.implementation.presence.PresencePublisher;
 import me.vrekt.fortnitexmpp.presence.PresenceResource;
 import me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration;
+import me.vrekt.fortnitexmpp.recorder.StanzaRecorder;
+import me.vrekt.fortnitexmpp.roster.RosterBootstrap;
 import me.vrekt.fortnitexmpp.type.AppType;
 import me.vrekt.fortnitexmpp.type.PlatformType;
 import org.jivesoftware.smack.tcp.XMPPTCPConnection;
@@ -104,6 +110,41 @@ public interface FortniteXMPP {
      */
     void onConnectionError(final Consumer<Void> consumer);
 
+    /**
+     * @return the {@link FortniteXMPPConfiguration} used by this instance.
+     */
+    FortniteXMPPConfiguration configuration();
+
+    /**
+     * @return the {@link StanzaRecorder} that keeps the most recent stanzas of this account.
+     */
+    StanzaRecorder recorder();
+
+    /**
+     * @return the {@link MetricsRegistry} of this account, also available over JMX once connected.
+     */
+    MetricsRegistry metrics();
+
+    /**
+     * @return the {@link ListenerMonitor} that times every listener of this account.
+     */
+    ListenerMonitor listenerMonitor();
+
+    /**
+     * @return the {@link RosterBootstrap} used when the roster is loaded in the background.
+     */
+    RosterBootstrap rosterBootstrap();
+
+    /**
+     * @return the {@link PresencePublisher} that sends the presence of this account.
+     */
+    PresencePublisher presencePublisher();
+
+    /**
+     * @return the {@link PartyJoinOrchestrator} used to join parties.
+     */
+    PartyJoinOrchestrator partyJoiner();
+
     /**
      * @return the {@link Fortnite} instance created or provided.
      */
@@ -1,6 +1,7 @@
 package me.vrekt.fortnitexmpp.chat;
 
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
 import me.vrekt.fortnitexmpp.chat.implementation.IncomingMessageListener;
 import org.jxmpp.jid.Jid;
 
@@ -13,6 +14,14 @@ public interface ChatResource extends AutoCloseable {
      */
     boolean addIncomingMessageListener(IncomingMessageListener listener);
 
+    /**
+     * Adds an {@link IncomingMessageListener} that is invoked inside the provided {@code bulkhead} instead of on the connection thread.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    boolean addIncomingMessageListener(final IncomingMessageListener listener, final Bulkhead bulkhead);
+
     /**
      * Removes an {@link IncomingMessageListener}
      *
@@ -3,6 +3,11 @@ package me.vrekt.fortnitexmpp.chat;
 import com.google.common.flogger.FluentLogger;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
 import me.vrekt.fortnitexmpp.chat.implementation.IncomingMessageListener;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.dispatch.ListenerList;
+import me.vrekt.fortnitexmpp.jfr.StanzaDispatchedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaReceivedEvent;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
 import org.jivesoftware.smack.SmackException;
 import org.jivesoftware.smack.StanzaListener;
 import org.jivesoftware.smack.filter.MessageTypeFilter;
@@ -12,17 +17,17 @@ import org.jivesoftware.smack.tcp.XMPPTCPConnection;
 import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.impl.JidCreate;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 public final class DefaultChatResource implements ChatResource {
     private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
 
-    private final List<IncomingMessageListener> listeners = new CopyOnWriteArrayList<>();
+    private final ListenerList<IncomingMessageListener> listeners;
     private final MessageListener messageListener = new MessageListener();
 
     private XMPPTCPConnection connection;
+    private final MetricsRegistry metrics;
+    private final String accountId;
 
     /**
      * Initialize this resource.
@@ -31,6 +36,9 @@ public final class DefaultChatResource implements ChatResource {
      */
     public DefaultChatResource(final FortniteXMPP fortniteXMPP) {
         this.connection = fortniteXMPP.connection();
+        this.metrics = fortniteXMPP.metrics();
+        this.accountId = fortniteXMPP.accountId();
+        this.listeners = new ListenerList<>(fortniteXMPP.listenerMonitor());
         connection.addAsyncStanzaListener(messageListener, MessageTypeFilter.CHAT);
     }
 
@@ -39,6 +47,11 @@ public final class DefaultChatResource implements ChatResource {
         return listeners.add(listener);
     }
 
+    @Override
+    public boolean addIncomingMessageListener(final IncomingMessageListener listener, final Bulkhead bulkhead) {
+        return listeners.add(listener, bulkhead);
+    }
+
     @Override
     public boolean removeIncomingMessageListener(final IncomingMessageListener listener) {
         return listeners.remove(listener);
@@ -61,8 +74,10 @@ public final class DefaultChatResource implements ChatResource {
             packet.setBody(message);
 
             connection.sendStanza(packet);
+            metrics.chat().sent(message.length());
         } catch (final SmackException.NotConnectedException | InterruptedException exception) {
-            LOGGER.atWarning().withCause(exception).log("Failed to send message to: " + user.asUnescapedString());
+            metrics.chat().sendFailed();
+            LOGGER.atWarning().withCause(exception).log("Failed to send message to: %s", user.asUnescapedString());
         }
         return true;
     }
@@ -93,7 +108,16 @@ public final class DefaultChatResource implements ChatResource {
         @Override
         public void processStanza(Stanza packet) {
             final var message = (Message) packet;
+            final var size = message.getBody() == null ? 0 : message.getBody().length();
+            metrics.chat().received(size);
+            StanzaReceivedEvent.arrived(size).commit(accountId, "chat", null);
+
+            final var dispatchEvent = new StanzaDispatchedEvent();
+            dispatchEvent.begin();
+            final var dispatchStart = System.nanoTime();
             listeners.forEach(listener -> listener.messageReceived(new me.vrekt.fortnitexmpp.chat.implementation.Message(message.getFrom(), message.getBody())));
+            metrics.chat().dispatched(System.nanoTime() - dispatchStart);
+            dispatchEvent.commit(accountId, "chat", null);
         }
     }
 
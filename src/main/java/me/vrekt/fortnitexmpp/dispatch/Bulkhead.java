@@ -0,0 +1,136 @@
+package me.vrekt.fortnitexmpp.dispatch;
+
+import com.google.common.flogger.FluentLogger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded executor used to isolate a listener from the connection.
+ * A slow listener registered with a bulkhead only delays itself, never the stanzas handled after it.
+ */
+public final class Bulkhead implements AutoCloseable {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a new bulkhead with a single thread.
+     *
+     * @param name          the name of this bulkhead, used for thread names and logging.
+     * @param queueCapacity how many invocations may wait before {@code policy} applies.
+     * @param policy        what to do when the queue is full.
+     * @return a new {@link Bulkhead}
+     */
+    public static Bulkhead create(final String name, final int queueCapacity, final QueueFullPolicy policy) {
+        return new Bulkhead(name, 1, queueCapacity, policy);
+    }
+
+    /**
+     * Create a new bulkhead.
+     * Listeners are invoked in order only if {@code threads} is {@code 1}.
+     *
+     * @param name          the name of this bulkhead, used for thread names and logging.
+     * @param threads       how many threads to use
+     * @param queueCapacity how many invocations may wait before {@code policy} applies.
+     * @param policy        what to do when the queue is full.
+     * @return a new {@link Bulkhead}
+     */
+    public static Bulkhead create(final String name, final int threads, final int queueCapacity, final QueueFullPolicy policy) {
+        return new Bulkhead(name, threads, queueCapacity, policy);
+    }
+
+    private Bulkhead(final String name, final int threads, final int queueCapacity, final QueueFullPolicy policy) {
+        this.name = name;
+        final var count = new AtomicInteger();
+        final ThreadFactory factory = runnable -> {
+            final var thread = new Thread(runnable, "Bulkhead-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory, rejectionHandler(policy));
+    }
+
+    /**
+     * Execute the provided task in this bulkhead.
+     *
+     * @param task the task
+     */
+    public void execute(final Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * @return the name of this bulkhead
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return how many invocations are waiting.
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return how many invocations were dropped because the queue was full.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private RejectedExecutionHandler rejectionHandler(final QueueFullPolicy policy) {
+        return (task, executor) -> {
+            if (executor.isShutdown()) return;
+            switch (policy) {
+                case CALLER_RUNS:
+                    task.run();
+                    return;
+                case DROP_OLDEST:
+                    executor.getQueue().poll();
+                    executor.execute(task);
+                    break;
+                case DROP_NEWEST:
+                    break;
+            }
+
+            rejected.increment();
+            LOGGER.atWarning().atMostEvery(10, TimeUnit.SECONDS).log("Bulkhead %s is full, dropped an invocation. (%d dropped so far)", name, rejected.sum());
+        };
+    }
+
+    /**
+     * What to do when a bulkhead queue is full.
+     */
+    public enum QueueFullPolicy {
+        /**
+         * Drop the invocation that did not fit.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest waiting invocation to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Run the invocation on the connection thread, this applies back pressure like a listener without a bulkhead.
+         */
+        CALLER_RUNS
+    }
+
+}
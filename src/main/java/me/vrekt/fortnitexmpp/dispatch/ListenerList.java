@@ -0,0 +1,92 @@
+package me.vrekt.fortnitexmpp.dispatch;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A list of listeners that are invoked through a {@link ListenerMonitor}
+ * Listeners added with a {@link Bulkhead} are invoked inside it instead of on the connection thread.
+ *
+ * @param <T> the type of listener
+ */
+public final class ListenerList<T> {
+
+    private final List<Registration<T>> registrations = new CopyOnWriteArrayList<>();
+    private final ListenerMonitor monitor;
+
+    public ListenerList(final ListenerMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Add a listener that is invoked on the connection thread.
+     *
+     * @param listener the listener
+     * @return {@code true} if the listener was added
+     */
+    public boolean add(final T listener) {
+        return add(listener, null);
+    }
+
+    /**
+     * Add a listener that is invoked inside the provided {@code bulkhead}
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead or {@code null} to invoke it on the connection thread.
+     * @return {@code true} if the listener was added
+     */
+    public boolean add(final T listener, final Bulkhead bulkhead) {
+        return registrations.add(new Registration<>(listener, bulkhead));
+    }
+
+    /**
+     * Remove a listener
+     *
+     * @param listener the listener
+     * @return {@code true} if the listener was removed
+     */
+    public boolean remove(final T listener) {
+        return registrations.removeIf(registration -> registration.listener == listener);
+    }
+
+    /**
+     * Removes every listener
+     */
+    public void clear() {
+        registrations.clear();
+    }
+
+    /**
+     * @return {@code true} if there are no listeners.
+     */
+    public boolean isEmpty() {
+        return registrations.isEmpty();
+    }
+
+    /**
+     * Invoke every listener
+     *
+     * @param call the call to make on each listener
+     */
+    public void forEach(final Consumer<T> call) {
+        for (final var registration : registrations) {
+            if (registration.bulkhead == null) {
+                monitor.invoke(registration.listener, call);
+            } else {
+                registration.bulkhead.execute(() -> monitor.invoke(registration.listener, call));
+            }
+        }
+    }
+
+    private static final class Registration<T> {
+        private final T listener;
+        private final Bulkhead bulkhead;
+
+        private Registration(final T listener, final Bulkhead bulkhead) {
+            this.listener = listener;
+            this.bulkhead = bulkhead;
+        }
+    }
+
+}
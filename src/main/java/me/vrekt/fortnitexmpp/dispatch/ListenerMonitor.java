@@ -0,0 +1,133 @@
+package me.vrekt.fortnitexmpp.dispatch;
+
+import com.google.common.flogger.FluentLogger;
+import me.vrekt.fortnitexmpp.jfr.ListenerCompletedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Times every listener invocation of one account and warns when a listener takes longer than its budget.
+ * While a listener is over budget the thread running it is sampled, so the warning shows where it was stuck.
+ */
+public final class ListenerMonitor implements AutoCloseable {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+
+    private final Map<Thread, Invocation> running = new ConcurrentHashMap<>();
+    private final Supplier<String> accountId;
+    private final long budgetNanos;
+    private final ScheduledFuture<?> sampler;
+
+    /**
+     * Initialize this monitor
+     *
+     * @param service    the service used to sample slow listeners
+     * @param accountId  supplies the account ID once connected
+     * @param budget     how long a listener may take, {@code -1} to disable monitoring.
+     * @param budgetUnit the time unit of {@code budget}
+     */
+    public ListenerMonitor(final ScheduledExecutorService service, final Supplier<String> accountId, final long budget, final TimeUnit budgetUnit) {
+        this.accountId = accountId;
+        this.budgetNanos = budget <= 0 || budgetUnit == null ? -1 : budgetUnit.toNanos(budget);
+        if (budgetNanos == -1) {
+            sampler = null;
+        } else {
+            final var period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), budgetNanos / 2);
+            sampler = service.scheduleAtFixedRate(this::sample, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Invoke the listener, timing it if monitoring is enabled.
+     *
+     * @param listener the listener
+     * @param call     the call to make on the listener
+     * @param <T>      the type of listener
+     */
+    public <T> void invoke(final T listener, final Consumer<T> call) {
+        final var event = new ListenerCompletedEvent();
+        event.begin();
+        if (budgetNanos == -1) {
+            call.accept(listener);
+            event.commit(accountId.get(), listener, false);
+            return;
+        }
+
+        final var thread = Thread.currentThread();
+        final var invocation = new Invocation(listener, thread);
+        final var previous = running.put(thread, invocation);
+        try {
+            call.accept(listener);
+        } finally {
+            if (previous == null) {
+                running.remove(thread);
+            } else {
+                running.put(thread, previous);
+            }
+
+            final var elapsed = System.nanoTime() - invocation.start;
+            if (elapsed > budgetNanos) warn(invocation, elapsed);
+            event.commit(accountId.get(), listener, elapsed > budgetNanos);
+        }
+    }
+
+    /**
+     * Samples the stack of every invocation that is over budget and has not been sampled yet.
+     */
+    private void sample() {
+        final var now = System.nanoTime();
+        running.values().forEach(invocation -> {
+            if (invocation.sample == null && now - invocation.start > budgetNanos) {
+                invocation.sample = invocation.thread.getStackTrace();
+            }
+        });
+    }
+
+    private void warn(final Invocation invocation, final long elapsed) {
+        final var api = LOGGER.atWarning().atMostEvery(1, TimeUnit.SECONDS);
+        if (invocation.sample != null) {
+            final var sample = new SlowListenerSample(invocation.thread.getName());
+            sample.setStackTrace(invocation.sample);
+            api.withCause(sample);
+        }
+        api.log("Listener %s took %dms, budget is %dms.", invocation.listener.getClass().getName(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+    }
+
+    @Override
+    public void close() {
+        if (sampler != null) sampler.cancel(false);
+        running.clear();
+    }
+
+    /**
+     * A listener that is currently running.
+     */
+    private static final class Invocation {
+        private final Object listener;
+        private final Thread thread;
+        private final long start = System.nanoTime();
+        private volatile StackTraceElement[] sample;
+
+        private Invocation(final Object listener, final Thread thread) {
+            this.listener = listener;
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * Carries the stack sampled while a listener was over budget, only used for logging.
+     */
+    private static final class SlowListenerSample extends Throwable {
+        private SlowListenerSample(final String threadName) {
+            super("Stack sampled from " + threadName + " while the listener was over budget", null, false, true);
+        }
+    }
+
+}
@@ -0,0 +1,11 @@
+package me.vrekt.fortnitexmpp.exception;
+
+public final class PartyJoinException extends Exception {
+
+    /**
+     * An exception used for notifying when joining a party failed.
+     */
+    public PartyJoinException(final String message) {
+        super(message);
+    }
+}
@@ -2,10 +2,18 @@ package me.vrekt.fortnitexmpp.friend;
 
 import com.google.common.flogger.FluentLogger;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.dispatch.ListenerList;
 import me.vrekt.fortnitexmpp.friend.implementation.FriendListener;
 import me.vrekt.fortnitexmpp.friend.type.FriendType;
+import me.vrekt.fortnitexmpp.jfr.StanzaDispatchedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaParsedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaReceivedEvent;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
+import me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration;
+import me.vrekt.fortnitexmpp.recorder.StanzaRecorder;
+import me.vrekt.fortnitexmpp.type.LogCategory;
 import me.vrekt.fortnitexmpp.utility.JsonUtility;
-import me.vrekt.fortnitexmpp.utility.Logging;
 import org.jivesoftware.smack.StanzaListener;
 import org.jivesoftware.smack.filter.StanzaTypeFilter;
 import org.jivesoftware.smack.packet.Message;
@@ -15,29 +23,35 @@ import org.jivesoftware.smack.tcp.XMPPTCPConnection;
 import javax.json.Json;
 import java.io.IOException;
 import java.io.StringReader;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 public final class DefaultFriendResource implements FriendResource {
 
     private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
-    private final List<FriendListener> listeners = new CopyOnWriteArrayList<>();
+    private final ListenerList<FriendListener> listeners;
     private final MessageListener messageListener = new MessageListener();
     private XMPPTCPConnection connection;
     private FortniteXMPP fortniteXMPP;
 
-    private boolean enableLogging;
+    private final FortniteXMPPConfiguration configuration;
+    private final StanzaRecorder recorder;
+    private final MetricsRegistry metrics;
+    private final String accountId;
 
     /**
      * Initialize this resource
      *
      * @param fortniteXMPP the {@link FortniteXMPP} instance
      */
-    public DefaultFriendResource(final FortniteXMPP fortniteXMPP, final boolean enableLogging) {
+    public DefaultFriendResource(final FortniteXMPP fortniteXMPP) {
         this.connection = fortniteXMPP.connection();
         this.fortniteXMPP = fortniteXMPP;
-        this.enableLogging = enableLogging;
+        this.configuration = fortniteXMPP.configuration();
+        this.recorder = fortniteXMPP.recorder();
+        this.metrics = fortniteXMPP.metrics();
+        this.accountId = fortniteXMPP.accountId();
+        this.listeners = new ListenerList<>(fortniteXMPP.listenerMonitor());
         connection.addAsyncStanzaListener(messageListener, StanzaTypeFilter.MESSAGE);
     }
 
@@ -46,6 +60,11 @@ public final class DefaultFriendResource implements FriendResource {
         listeners.add(listener);
     }
 
+    @Override
+    public void addFriendListener(final FriendListener listener, final Bulkhead bulkhead) {
+        listeners.add(listener, bulkhead);
+    }
+
     @Override
     public void removeFriendListener(final FriendListener listener) {
         listeners.remove(listener);
@@ -56,9 +75,9 @@ public final class DefaultFriendResource implements FriendResource {
         Objects.requireNonNull(accountId, "Account ID cannot be null.");
         try {
             fortniteXMPP.fortnite().friend().addOneByAccountId(accountId);
-            Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Added or sent a friend request to: " + accountId);
+            if (configuration.doEnableLogging(LogCategory.FRIEND)) LOGGER.atInfo().log("Added or sent a friend request to: %s", accountId);
         } catch (final IOException exception) {
-            LOGGER.atWarning().withCause(exception).log("Could not send or accept friend request to: " + accountId);
+            LOGGER.atWarning().withCause(exception).log("Could not send or accept friend request to: %s", accountId);
             return false;
         }
         return true;
@@ -97,14 +116,32 @@ public final class DefaultFriendResource implements FriendResource {
             if (message.getFrom().getLocalpartOrNull().equals(connection.getUser().getLocalpart())) return;
 
             try {
+                final var receivedEvent = StanzaReceivedEvent.arrived(message.getBody().length());
+                final var parseEvent = new StanzaParsedEvent();
+                parseEvent.begin();
+                final var parseStart = System.nanoTime();
                 final var reader = Json.createReader(new StringReader(message.getBody()));
                 final var data = reader.readObject();
                 reader.close();
+                final var parseTime = System.nanoTime() - parseStart;
+                parseEvent.end();
 
                 final var type = FriendType.typeOf(JsonUtility.getString("type", data).orElse(null));
                 if (type == null) return; // not relevant
 
-                Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Friend message type: " + type.getName() + "\nWith payload: " + data.toString());
+                final var typeMetrics = metrics.friend(type);
+                typeMetrics.received(message.getBody().length());
+                typeMetrics.parsed(parseTime);
+                receivedEvent.commit(accountId, "friend", type.name());
+                parseEvent.commit(accountId, "friend", type.name());
+                final var dispatchEvent = new StanzaDispatchedEvent();
+                dispatchEvent.begin();
+                final var dispatchStart = System.nanoTime();
+
+                if (configuration.doEnableLogging(LogCategory.FRIEND_WIRE)) {
+                    LOGGER.atInfo().atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                            .log("Friend message type: %s\nWith payload: %s", type.getName(), data);
+                }
 
                 listeners.forEach(listener -> listener.onXMPPFriendMessage(message));
 
@@ -145,8 +182,12 @@ public final class DefaultFriendResource implements FriendResource {
                     }
                 }
 
+                typeMetrics.dispatched(System.nanoTime() - dispatchStart);
+                dispatchEvent.commit(accountId, "friend", type.name());
             } catch (final Exception exception) {
-                LOGGER.atWarning().log("Failed to parse message JSON. from: " + packet.getFrom().asUnescapedString() + "\nPayload: " + message.getBody());
+                LOGGER.atWarning().atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                        .log("Failed to parse message JSON. from: %s\nPayload: %s", packet.getFrom(), message.getBody());
+                recorder.dump("failed to parse message");
             }
         }
     }
@@ -1,6 +1,7 @@
 package me.vrekt.fortnitexmpp.friend;
 
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
 import me.vrekt.fortnitexmpp.friend.implementation.FriendListener;
 
 public interface FriendResource extends AutoCloseable {
@@ -12,6 +13,14 @@ public interface FriendResource extends AutoCloseable {
      */
     void addFriendListener(final FriendListener listener);
 
+    /**
+     * Adds a friend listener that is invoked inside the provided {@code bulkhead} instead of on the connection thread.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    void addFriendListener(final FriendListener listener, final Bulkhead bulkhead);
+
     /**
      * Remove a friend listener
      *
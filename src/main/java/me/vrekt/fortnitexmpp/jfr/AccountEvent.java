@@ -0,0 +1,17 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * The base of every flight recorder event emitted by this library.
+ * Events cost next to nothing unless a recording with them enabled is running.
+ */
+@Category("Fortnite XMPP")
+public abstract class AccountEvent extends Event {
+
+    @Label("Account ID")
+    protected String accountId;
+
+}
@@ -0,0 +1,33 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.ListenerCompleted")
+@Label("Listener Completed")
+@Description("A listener finished handling an event.")
+public final class ListenerCompletedEvent extends AccountEvent {
+
+    @Label("Listener")
+    private String listener;
+
+    @Label("Over Budget")
+    private boolean overBudget;
+
+    /**
+     * Commits this event if it is enabled and above its threshold.
+     *
+     * @param accountId  the account ID
+     * @param listener   the listener
+     * @param overBudget {@code true} if the listener took longer than its budget.
+     */
+    public void commit(final String accountId, final Object listener, final boolean overBudget) {
+        if (!shouldCommit()) return;
+        this.accountId = accountId;
+        this.listener = listener.getClass().getName();
+        this.overBudget = overBudget;
+        commit();
+    }
+
+}
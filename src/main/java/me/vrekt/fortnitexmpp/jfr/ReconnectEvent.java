@@ -0,0 +1,28 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.Reconnect")
+@Label("Reconnect")
+@Description("A reconnect, the start time is when it started and the end time is when it finished.")
+public final class ReconnectEvent extends AccountEvent {
+
+    @Label("Successful")
+    private boolean successful;
+
+    /**
+     * Commits this event if it is enabled and above its threshold.
+     *
+     * @param accountId  the account ID
+     * @param successful {@code true} if the reconnect succeeded.
+     */
+    public void commit(final String accountId, final boolean successful) {
+        if (!shouldCommit()) return;
+        this.accountId = accountId;
+        this.successful = successful;
+        commit();
+    }
+
+}
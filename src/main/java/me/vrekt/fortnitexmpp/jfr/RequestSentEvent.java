@@ -0,0 +1,45 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.RequestSent")
+@Label("Party Request Sent")
+@Description("A party request was written to the connection.")
+public final class RequestSentEvent extends AccountEvent {
+
+    @Label("Party Type")
+    private String partyType;
+
+    @Label("Recipient")
+    private String recipient;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    private long size;
+
+    @Label("Successful")
+    private boolean successful;
+
+    /**
+     * Commits this event if it is enabled and above its threshold.
+     *
+     * @param accountId  the account ID
+     * @param partyType  the type of request
+     * @param recipient  the recipient
+     * @param size       the size of the payload
+     * @param successful {@code true} if the request was sent.
+     */
+    public void commit(final String accountId, final String partyType, final String recipient, final long size, final boolean successful) {
+        if (!shouldCommit()) return;
+        this.accountId = accountId;
+        this.partyType = partyType;
+        this.recipient = recipient;
+        this.size = size;
+        this.successful = successful;
+        commit();
+    }
+
+}
@@ -0,0 +1,28 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.RosterLoaded")
+@Label("Roster Loaded")
+@Description("The roster was loaded after logging in.")
+public final class RosterLoadedEvent extends AccountEvent {
+
+    @Label("Entries")
+    private int entries;
+
+    /**
+     * Commits this event if it is enabled and above its threshold.
+     *
+     * @param accountId the account ID
+     * @param entries   the amount of roster entries
+     */
+    public void commit(final String accountId, final int entries) {
+        if (!shouldCommit()) return;
+        this.accountId = accountId;
+        this.entries = entries;
+        commit();
+    }
+
+}
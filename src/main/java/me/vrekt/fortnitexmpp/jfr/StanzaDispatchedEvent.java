@@ -0,0 +1,12 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.StanzaDispatched")
+@Label("Stanza Dispatched")
+@Description("A stanza was applied to the local state and passed to every listener.")
+public final class StanzaDispatchedEvent extends StanzaEvent {
+
+}
@@ -0,0 +1,34 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+
+/**
+ * An event about a single stanza handled by a resource.
+ */
+public abstract class StanzaEvent extends AccountEvent {
+
+    @Label("Category")
+    @Description("The resource that handled the stanza, party, friend, chat or presence.")
+    protected String category;
+
+    @Label("Type")
+    @Description("The PartyType or FriendType of the stanza, if any.")
+    protected String type;
+
+    /**
+     * Commits this event if it is enabled and above its threshold.
+     *
+     * @param accountId the account ID
+     * @param category  the category
+     * @param type      the type or {@code null}
+     */
+    public void commit(final String accountId, final String category, final String type) {
+        if (!shouldCommit()) return;
+        this.accountId = accountId;
+        this.category = category;
+        this.type = type;
+        commit();
+    }
+
+}
@@ -0,0 +1,12 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.StanzaParsed")
+@Label("Stanza Parsed")
+@Description("The payload of a stanza was parsed.")
+public final class StanzaParsedEvent extends StanzaEvent {
+
+}
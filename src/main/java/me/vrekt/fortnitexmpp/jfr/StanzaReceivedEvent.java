@@ -0,0 +1,31 @@
+package me.vrekt.fortnitexmpp.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vrekt.fortnitexmpp.StanzaReceived")
+@Label("Stanza Received")
+@Description("A stanza was received by a resource, the start time is when it arrived.")
+public final class StanzaReceivedEvent extends StanzaEvent {
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    private long size;
+
+    /**
+     * Creates a new event marking the arrival of a stanza.
+     *
+     * @param size the size of the stanza body
+     * @return the event, committed once the type is known.
+     */
+    public static StanzaReceivedEvent arrived(final long size) {
+        final var event = new StanzaReceivedEvent();
+        event.size = size;
+        event.begin();
+        event.end();
+        return event;
+    }
+
+}
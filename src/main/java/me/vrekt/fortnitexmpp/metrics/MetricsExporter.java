@@ -0,0 +1,15 @@
+package me.vrekt.fortnitexmpp.metrics;
+
+/**
+ * Exports the metrics of an account somewhere else, for example to a time series database.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Invoked periodically with the current metrics of an account.
+     *
+     * @param registry the registry of the account
+     */
+    void export(final MetricsRegistry registry);
+
+}
@@ -0,0 +1,232 @@
+package me.vrekt.fortnitexmpp.metrics;
+
+import com.google.common.flogger.FluentLogger;
+import me.vrekt.fortnitexmpp.friend.type.FriendType;
+import me.vrekt.fortnitexmpp.metrics.implementation.CacheMetrics;
+import me.vrekt.fortnitexmpp.metrics.implementation.StanzaMetrics;
+import me.vrekt.fortnitexmpp.party.type.PartyType;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.filter.StanzaFilter;
+import org.jivesoftware.smack.packet.Message;
+import org.jivesoftware.smack.packet.Presence;
+import org.jivesoftware.smack.packet.Stanza;
+import org.jivesoftware.smack.tcp.XMPPTCPConnection;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the metrics of one account, per {@link PartyType}, per {@link FriendType}, chat, presence and the connection itself.
+ * Every {@link StanzaMetrics} is created up front so looking one up on the hot path never allocates.
+ */
+public final class MetricsRegistry {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+    private static final StanzaFilter ALL = stanza -> true;
+
+    private final Map<PartyType, StanzaMetrics> party = new EnumMap<>(PartyType.class);
+    private final Map<FriendType, StanzaMetrics> friend = new EnumMap<>(FriendType.class);
+    private final StanzaMetrics chat = new StanzaMetrics("chat", "chat");
+    private final StanzaMetrics presence = new StanzaMetrics("presence", "presence");
+    private final StanzaMetrics connection = new StanzaMetrics("connection", "connection");
+    private final List<StanzaMetrics> all;
+    private final CacheMetrics presenceCache = new CacheMetrics("presence");
+
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    // sizes are the length of the payload like the other metrics, the body of messages and the status of presences.
+    private final StanzaListener inboundListener = stanza -> connection.received(payloadLength(stanza));
+    private final StanzaListener outboundListener = stanza -> connection.sent(payloadLength(stanza));
+    private XMPPTCPConnection attached;
+    private String accountId;
+
+    public MetricsRegistry() {
+        for (final var type : PartyType.values()) party.put(type, new StanzaMetrics("party", type.name()));
+        for (final var type : FriendType.values()) friend.put(type, new StanzaMetrics("friend", type.name()));
+
+        final var all = new ArrayList<StanzaMetrics>(party.values());
+        all.addAll(friend.values());
+        all.add(chat);
+        all.add(presence);
+        all.add(connection);
+        this.all = Collections.unmodifiableList(all);
+    }
+
+    /**
+     * @param type the type
+     * @return the metrics for the provided party {@code type}
+     */
+    public StanzaMetrics party(final PartyType type) {
+        return party.get(type);
+    }
+
+    /**
+     * @param type the type
+     * @return the metrics for the provided friend {@code type}
+     */
+    public StanzaMetrics friend(final FriendType type) {
+        return friend.get(type);
+    }
+
+    /**
+     * @return the metrics for chat messages.
+     */
+    public StanzaMetrics chat() {
+        return chat;
+    }
+
+    /**
+     * @return the metrics for presences.
+     */
+    public StanzaMetrics presence() {
+        return presence;
+    }
+
+    /**
+     * @return the metrics for every stanza sent or received on the connection.
+     */
+    public StanzaMetrics connection() {
+        return connection;
+    }
+
+    /**
+     * @return the hit and miss counters of the parsed presence cache.
+     */
+    public CacheMetrics presenceCache() {
+        return presenceCache;
+    }
+
+    /**
+     * @return every {@link StanzaMetrics} in this registry.
+     */
+    public List<StanzaMetrics> all() {
+        return all;
+    }
+
+    /**
+     * @return the account ID these metrics belong to or {@code null} if the account has not connected yet.
+     */
+    public String accountId() {
+        return accountId;
+    }
+
+    /**
+     * Add an exporter
+     *
+     * @param exporter the exporter
+     */
+    public void addExporter(final MetricsExporter exporter) {
+        exporters.add(exporter);
+    }
+
+    /**
+     * Remove an exporter
+     *
+     * @param exporter the exporter
+     */
+    public void removeExporter(final MetricsExporter exporter) {
+        exporters.remove(exporter);
+    }
+
+    /**
+     * Passes this registry to every exporter.
+     */
+    public void export() {
+        exporters.forEach(exporter -> {
+            try {
+                exporter.export(this);
+            } catch (final Exception exception) {
+                LOGGER.atWarning().withCause(exception).log("Metrics exporter failed.");
+            }
+        });
+    }
+
+    /**
+     * Start counting every stanza on the provided connection, the previous connection is detached.
+     *
+     * @param connection the connection
+     */
+    public void attach(final XMPPTCPConnection connection) {
+        detach();
+        this.attached = connection;
+        connection.addSyncStanzaListener(inboundListener, ALL);
+        connection.addStanzaSendingListener(outboundListener, ALL);
+    }
+
+    /**
+     * Stop counting stanzas on the current connection.
+     */
+    public void detach() {
+        if (attached == null) return;
+        attached.removeSyncStanzaListener(inboundListener);
+        attached.removeStanzaSendingListener(outboundListener);
+        attached = null;
+    }
+
+    /**
+     * @param stanza the stanza
+     * @return the length of the body or status, {@code 0} for other stanzas.
+     */
+    private static int payloadLength(final Stanza stanza) {
+        final String payload;
+        if (stanza instanceof Message) {
+            payload = ((Message) stanza).getBody();
+        } else if (stanza instanceof Presence) {
+            payload = ((Presence) stanza).getStatus();
+        } else {
+            payload = null;
+        }
+        return payload == null ? 0 : payload.length();
+    }
+
+    /**
+     * Registers every {@link StanzaMetrics} and {@link CacheMetrics} with the platform MBean server.
+     * Names follow {@code me.vrekt.fortnitexmpp:type=Metrics,account=<accountId>,category=<category>,name=<name>}
+     * Caches use the category {@code cache}
+     *
+     * @param accountId the account ID
+     */
+    public synchronized void registerMBeans(final String accountId) {
+        this.accountId = accountId;
+        if (!registered.isEmpty()) return;
+
+        for (final var metrics : all) registerMBean(metrics, metrics.category(), metrics.name());
+        registerMBean(presenceCache, "cache", presenceCache.name());
+    }
+
+    private void registerMBean(final Object metrics, final String category, final String name) {
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final var objectName = new ObjectName("me.vrekt.fortnitexmpp:type=Metrics,account=" + accountId
+                    + ",category=" + category + ",name=" + name);
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+            server.registerMBean(metrics, objectName);
+            registered.add(objectName);
+        } catch (final Exception exception) {
+            LOGGER.atWarning().withCause(exception).log("Failed to register metrics for: %s", name);
+        }
+    }
+
+    /**
+     * Removes every {@link StanzaMetrics} from the platform MBean server.
+     */
+    public synchronized void unregisterMBeans() {
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        for (final var name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (final Exception exception) {
+                LOGGER.atWarning().withCause(exception).log("Failed to unregister metrics: %s", name);
+            }
+        }
+        registered.clear();
+    }
+
+}
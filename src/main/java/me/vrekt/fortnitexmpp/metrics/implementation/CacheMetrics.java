@@ -0,0 +1,61 @@
+package me.vrekt.fortnitexmpp.metrics.implementation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters for a cache.
+ */
+public final class CacheMetrics implements CacheMetricsMXBean {
+
+    private final String name;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    public CacheMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * A lookup was answered from the cache.
+     */
+    public void hit() {
+        hits.increment();
+    }
+
+    /**
+     * A lookup was not in the cache.
+     */
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * @return the name of the cache, for example {@code "presence"}
+     */
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        final var hits = this.hits.sum();
+        final var total = hits + misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+}
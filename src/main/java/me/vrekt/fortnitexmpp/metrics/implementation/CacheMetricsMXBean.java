@@ -0,0 +1,19 @@
+package me.vrekt.fortnitexmpp.metrics.implementation;
+
+/**
+ * The JMX view of {@link CacheMetrics}
+ */
+public interface CacheMetricsMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    /**
+     * Resets every counter.
+     */
+    void reset();
+
+}
@@ -0,0 +1,110 @@
+package me.vrekt.fortnitexmpp.metrics.implementation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size, log-linear histogram similar to HdrHistogram.
+ * Every power of two is split into 8 sub buckets, so any recorded value is within 12.5% of its bucket.
+ * Recording is lock-free and never allocates.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a value
+     *
+     * @param value the value, negative values are recorded as {@code 0}
+     */
+    public void record(final long value) {
+        final var positive = Math.max(0, value);
+        buckets.incrementAndGet(indexFor(positive));
+        count.increment();
+        sum.add(positive);
+        max.accumulate(positive);
+    }
+
+    /**
+     * @return how many values were recorded.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of all recorded values.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the highest recorded value.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of all recorded values or {@code 0} if nothing was recorded.
+     */
+    public long mean() {
+        final var total = count();
+        return total == 0 ? 0 : sum() / total;
+    }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the highest value that is equivalent to the value at the provided {@code percentile}
+     */
+    public long percentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += buckets.get(i);
+        if (total == 0) return 0;
+
+        final var target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return Math.min(highestValueFor(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Clears this histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static int indexFor(final long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        final var exponent = 63 - Long.numberOfLeadingZeros(value);
+        final var subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowestValueFor(final int index) {
+        if (index < SUB_BUCKETS) return index;
+        final var exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long highestValueFor(final int index) {
+        return index + 1 >= BUCKETS ? Long.MAX_VALUE : lowestValueFor(index + 1) - 1;
+    }
+
+}
@@ -0,0 +1,191 @@
+package me.vrekt.fortnitexmpp.metrics.implementation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timings for one kind of stanza, for example one {@link me.vrekt.fortnitexmpp.party.type.PartyType}
+ * Counters are striped with {@link LongAdder} so updating them from many threads is cheap.
+ */
+public final class StanzaMetrics implements StanzaMetricsMXBean {
+
+    private final String category, name;
+
+    private final LongAdder stanzasIn = new LongAdder(), stanzasOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder(), bytesOut = new LongAdder();
+    private final LongAdder malformed = new LongAdder(), sendFailures = new LongAdder();
+    private final LatencyHistogram parse = new LatencyHistogram(), dispatch = new LatencyHistogram();
+
+    public StanzaMetrics(final String category, final String name) {
+        this.category = category;
+        this.name = name;
+    }
+
+    /**
+     * A stanza was received.
+     *
+     * @param bytes the size of the payload
+     */
+    public void received(final int bytes) {
+        stanzasIn.increment();
+        bytesIn.add(bytes);
+    }
+
+    /**
+     * A stanza was sent.
+     *
+     * @param bytes the size of the payload
+     */
+    public void sent(final int bytes) {
+        stanzasOut.increment();
+        bytesOut.add(bytes);
+    }
+
+    /**
+     * @param nanos how long parsing the payload took
+     */
+    public void parsed(final long nanos) {
+        parse.record(nanos);
+    }
+
+    /**
+     * @param nanos how long invoking the listeners took
+     */
+    public void dispatched(final long nanos) {
+        dispatch.record(nanos);
+    }
+
+    /**
+     * A malformed payload was received.
+     */
+    public void malformed() {
+        malformed.increment();
+    }
+
+    /**
+     * A stanza could not be sent.
+     */
+    public void sendFailed() {
+        sendFailures.increment();
+    }
+
+    /**
+     * @return the category, for example {@code "party"} or {@code "friend"}
+     */
+    public String category() {
+        return category;
+    }
+
+    /**
+     * @return the name within the category, for example {@code "PARTY_INVITATION"}
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the histogram of parse times in nanoseconds.
+     */
+    public LatencyHistogram parseHistogram() {
+        return parse;
+    }
+
+    /**
+     * @return the histogram of listener dispatch times in nanoseconds.
+     */
+    public LatencyHistogram dispatchHistogram() {
+        return dispatch;
+    }
+
+    @Override
+    public long getStanzasIn() {
+        return stanzasIn.sum();
+    }
+
+    @Override
+    public long getStanzasOut() {
+        return stanzasOut.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public long getMalformedPayloads() {
+        return malformed.sum();
+    }
+
+    @Override
+    public long getSendFailures() {
+        return sendFailures.sum();
+    }
+
+    @Override
+    public long getParseCount() {
+        return parse.count();
+    }
+
+    @Override
+    public long getParseMeanNanos() {
+        return parse.mean();
+    }
+
+    @Override
+    public long getParseP50Nanos() {
+        return parse.percentile(50);
+    }
+
+    @Override
+    public long getParseP99Nanos() {
+        return parse.percentile(99);
+    }
+
+    @Override
+    public long getParseMaxNanos() {
+        return parse.max();
+    }
+
+    @Override
+    public long getDispatchCount() {
+        return dispatch.count();
+    }
+
+    @Override
+    public long getDispatchMeanNanos() {
+        return dispatch.mean();
+    }
+
+    @Override
+    public long getDispatchP50Nanos() {
+        return dispatch.percentile(50);
+    }
+
+    @Override
+    public long getDispatchP99Nanos() {
+        return dispatch.percentile(99);
+    }
+
+    @Override
+    public long getDispatchMaxNanos() {
+        return dispatch.max();
+    }
+
+    @Override
+    public void reset() {
+        stanzasIn.reset();
+        stanzasOut.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        malformed.reset();
+        sendFailures.reset();
+        parse.reset();
+        dispatch.reset();
+    }
+
+}
@@ -0,0 +1,45 @@
+package me.vrekt.fortnitexmpp.metrics.implementation;
+
+/**
+ * The JMX view of {@link StanzaMetrics}
+ */
+public interface StanzaMetricsMXBean {
+
+    long getStanzasIn();
+
+    long getStanzasOut();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    long getMalformedPayloads();
+
+    long getSendFailures();
+
+    long getParseCount();
+
+    long getParseMeanNanos();
+
+    long getParseP50Nanos();
+
+    long getParseP99Nanos();
+
+    long getParseMaxNanos();
+
+    long getDispatchCount();
+
+    long getDispatchMeanNanos();
+
+    long getDispatchP50Nanos();
+
+    long getDispatchP99Nanos();
+
+    long getDispatchMaxNanos();
+
+    /**
+     * Resets every counter and histogram.
+     */
+    void reset();
+
+}
@@ -2,27 +2,47 @@ package me.vrekt.fortnitexmpp.party;
 
 import com.google.common.flogger.FluentLogger;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.exception.PartyJoinException;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.dispatch.ListenerList;
+import me.vrekt.fortnitexmpp.jfr.RequestSentEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaDispatchedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaParsedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaReceivedEvent;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
 import me.vrekt.fortnitexmpp.party.implementation.DefaultParty;
 import me.vrekt.fortnitexmpp.party.implementation.Party;
 import me.vrekt.fortnitexmpp.party.implementation.configuration.PartyConfiguration;
 import me.vrekt.fortnitexmpp.party.implementation.configuration.PrivacySetting;
 import me.vrekt.fortnitexmpp.party.implementation.data.ImmutablePartyData;
+import me.vrekt.fortnitexmpp.party.implementation.join.JoinabilityResponse;
+import me.vrekt.fortnitexmpp.party.implementation.join.PartyJoinOrchestrator;
 import me.vrekt.fortnitexmpp.party.implementation.listener.PartyListener;
+import me.vrekt.fortnitexmpp.party.implementation.listener.PartyMemberChangeListener;
+import me.vrekt.fortnitexmpp.party.implementation.member.MembershipIndex;
 import me.vrekt.fortnitexmpp.party.implementation.member.PartyMember;
 import me.vrekt.fortnitexmpp.party.implementation.member.connection.ConnectionType;
 import me.vrekt.fortnitexmpp.party.implementation.member.data.ImmutablePartyMemberData;
+import me.vrekt.fortnitexmpp.party.implementation.member.data.MemberDataChange;
 import me.vrekt.fortnitexmpp.party.implementation.presence.PartyPresence;
+import me.vrekt.fortnitexmpp.party.implementation.presence.PresencePublisher;
 import me.vrekt.fortnitexmpp.party.implementation.request.PartyRequest;
+import me.vrekt.fortnitexmpp.party.implementation.request.PendingRequests;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinAcknowledged;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinRequest;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyQueryJoinability;
 import me.vrekt.fortnitexmpp.party.implementation.request.general.InvitationResponse;
+import me.vrekt.fortnitexmpp.party.implementation.request.general.PartyInvitation;
 import me.vrekt.fortnitexmpp.party.type.PartyType;
+import me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration;
+import me.vrekt.fortnitexmpp.recorder.StanzaRecorder;
+import me.vrekt.fortnitexmpp.type.LogCategory;
 import me.vrekt.fortnitexmpp.utility.FindPlatformUtility;
 import me.vrekt.fortnitexmpp.utility.JsonUtility;
-import me.vrekt.fortnitexmpp.utility.Logging;
 import org.jivesoftware.smack.SmackException;
 import org.jivesoftware.smack.StanzaListener;
 import org.jivesoftware.smack.filter.StanzaTypeFilter;
 import org.jivesoftware.smack.packet.Message;
-import org.jivesoftware.smack.packet.Presence;
 import org.jivesoftware.smack.packet.Stanza;
 import org.jivesoftware.smack.tcp.XMPPTCPConnection;
 import org.jivesoftware.smackx.muc.MultiUserChat;
@@ -36,10 +56,11 @@ import javax.json.JsonObject;
 import java.io.StringReader;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class DefaultPartyResource implements PartyResource {
@@ -47,7 +68,9 @@ public final class DefaultPartyResource implements PartyResource {
     private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
 
     private final Map<String, Party> parties = new ConcurrentHashMap<>();
-    private final List<PartyListener> listeners = new CopyOnWriteArrayList<>();
+    private final MembershipIndex memberships = new MembershipIndex();
+    private final ListenerList<PartyListener> listeners;
+    private final ListenerList<PartyMemberChangeListener> changeListeners;
     private final MessageListener messageListener = new MessageListener();
     private final String displayName, accountId;
 
@@ -55,18 +78,31 @@ public final class DefaultPartyResource implements PartyResource {
 
     private MultiUserChatManager manager;
 
-    private boolean enableLogging;
+    private final FortniteXMPPConfiguration configuration;
+    private final StanzaRecorder recorder;
+    private final MetricsRegistry metrics;
+    private final PresencePublisher publisher;
+    private final PartyJoinOrchestrator joiner;
+    private final PendingRequests pending;
 
     /**
      * Initialize this resource
      *
      * @param fortniteXMPP the {@link FortniteXMPP} instance
      */
-    public DefaultPartyResource(final FortniteXMPP fortniteXMPP, final boolean enableLogging) {
+    public DefaultPartyResource(final FortniteXMPP fortniteXMPP) {
         this.connection = fortniteXMPP.connection();
         this.displayName = fortniteXMPP.displayName();
         this.accountId = fortniteXMPP.accountId();
-        this.enableLogging = enableLogging;
+        this.configuration = fortniteXMPP.configuration();
+        this.recorder = fortniteXMPP.recorder();
+        this.metrics = fortniteXMPP.metrics();
+        this.publisher = fortniteXMPP.presencePublisher();
+        this.joiner = fortniteXMPP.partyJoiner();
+        joiner.attach(this, displayName);
+        this.pending = new PendingRequests(configuration.getMaxPendingPartyRequests());
+        this.listeners = new ListenerList<>(fortniteXMPP.listenerMonitor());
+        this.changeListeners = new ListenerList<>(fortniteXMPP.listenerMonitor());
         connection.addAsyncStanzaListener(messageListener, StanzaTypeFilter.MESSAGE);
         this.manager = MultiUserChatManager.getInstanceFor(connection);
     }
@@ -76,9 +112,29 @@ public final class DefaultPartyResource implements PartyResource {
         listeners.add(listener);
     }
 
+    @Override
+    public void addPartyListener(final PartyListener listener, final Bulkhead bulkhead) {
+        listeners.add(listener, bulkhead);
+    }
+
     @Override
     public void removePartyListener(final PartyListener listener) {
-        listeners.add(listener);
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void addMemberChangeListener(final PartyMemberChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void addMemberChangeListener(final PartyMemberChangeListener listener, final Bulkhead bulkhead) {
+        changeListeners.add(listener, bulkhead);
+    }
+
+    @Override
+    public void removeMemberChangeListener(final PartyMemberChangeListener listener) {
+        changeListeners.remove(listener);
     }
 
     @Override
@@ -119,6 +175,68 @@ public final class DefaultPartyResource implements PartyResource {
         return failed.get();
     }
 
+    @Override
+    public CompletableFuture<JoinabilityResponse> queryJoinability(final PartyQueryJoinability request, final Jid recipient) {
+        return queryJoinability(request, recipient, configuration.getPartyRequestTimeout(), configuration.getPartyRequestTimeoutUnit());
+    }
+
+    @Override
+    public CompletableFuture<JoinabilityResponse> queryJoinability(final PartyQueryJoinability request, final Jid recipient,
+                                                                   final long timeout, final TimeUnit timeUnit) {
+        return sendAndAwait(request, request.partyId(), recipient, timeout, timeUnit);
+    }
+
+    @Override
+    public CompletableFuture<Set<PartyMember>> requestToJoin(final PartyJoinRequest request, final Jid recipient) {
+        return requestToJoin(request, recipient, configuration.getPartyRequestTimeout(), configuration.getPartyRequestTimeoutUnit());
+    }
+
+    @Override
+    public CompletableFuture<Set<PartyMember>> requestToJoin(final PartyJoinRequest request, final Jid recipient,
+                                                             final long timeout, final TimeUnit timeUnit) {
+        return sendAndAwait(request, request.partyId(), recipient, timeout, timeUnit);
+    }
+
+    @Override
+    public CompletableFuture<Party> acknowledgeJoin(final PartyJoinAcknowledged request, final Jid recipient) {
+        return acknowledgeJoin(request, recipient, configuration.getPartyRequestTimeout(), configuration.getPartyRequestTimeoutUnit());
+    }
+
+    @Override
+    public CompletableFuture<Party> acknowledgeJoin(final PartyJoinAcknowledged request, final Jid recipient,
+                                                    final long timeout, final TimeUnit timeUnit) {
+        return sendAndAwait(request, request.partyId(), recipient, timeout, timeUnit);
+    }
+
+    @Override
+    public CompletableFuture<InvitationResponse> invite(final PartyInvitation request, final Jid recipient) {
+        return invite(request, recipient, configuration.getPartyRequestTimeout(), configuration.getPartyRequestTimeoutUnit());
+    }
+
+    @Override
+    public CompletableFuture<InvitationResponse> invite(final PartyInvitation request, final Jid recipient,
+                                                        final long timeout, final TimeUnit timeUnit) {
+        return sendAndAwait(request, request.partyId(), recipient, timeout, timeUnit);
+    }
+
+    /**
+     * Registers the request as pending and then sends it.
+     *
+     * @param request   the request
+     * @param partyId   the ID of the party
+     * @param recipient the recipient
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @return the future completed with the response
+     */
+    private <T> CompletableFuture<T> sendAndAwait(final PartyRequest request, final String partyId, final Jid recipient,
+                                                  final long timeout, final TimeUnit timeUnit) {
+        final CompletableFuture<T> future = pending.register(request.type(), partyId, recipient, timeout, timeUnit);
+        if (future.isDone()) return future;
+        if (sendTo(request, recipient)) future.completeExceptionally(new IllegalStateException("Failed to send party request."));
+        return future;
+    }
+
     /**
      * Send a request to the specified recipient
      *
@@ -130,14 +248,24 @@ public final class DefaultPartyResource implements PartyResource {
             LOGGER.atWarning().log("Request was null! Did you forget to build it?");
             return true;
         }
-        Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Sending request to: " + recipient.asUnescapedString() + "\nWith payload: " + request.payload());
+        if (configuration.doEnableLogging(LogCategory.PARTY_WIRE)) {
+            LOGGER.atInfo().atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                    .log("Sending request to: %s\nWith payload: %s", recipient, request.payload());
+        }
 
+        final var typeMetrics = metrics.party(request.type());
+        final var event = new RequestSentEvent();
+        event.begin();
         try {
             final var message = new Message(recipient, Message.Type.normal);
             message.setBody(request.payload());
             connection.sendStanza(message);
+            typeMetrics.sent(request.payload().length());
+            event.commit(accountId, request.type().name(), recipient.toString(), request.payload().length(), true);
         } catch (final SmackException.NotConnectedException | InterruptedException exception) {
             LOGGER.atWarning().withCause(exception).log("Failed to send party request.");
+            typeMetrics.sendFailed();
+            event.commit(accountId, request.type().name(), recipient.toString(), request.payload().length(), false);
             return true;
         }
         return false;
@@ -150,17 +278,18 @@ public final class DefaultPartyResource implements PartyResource {
 
     @Override
     public void removePartyById(final String partyId) {
-        parties.remove(partyId);
+        final var party = parties.remove(partyId);
+        if (party != null) party.members().forEach(member -> memberships.remove(member.accountId(), partyId));
+    }
+
+    @Override
+    public Set<String> getPartyIdsByMember(final String accountId) {
+        return memberships.partiesOf(accountId);
     }
 
     @Override
     public void setPartyPresence(final PartyPresence presence) {
-        final var packet = new Presence(Presence.Type.available, presence.status(), 0, Presence.Mode.available);
-        try {
-            connection.sendStanza(packet);
-        } catch (final SmackException.NotConnectedException | InterruptedException exception) {
-            LOGGER.atWarning().withCause(exception).log("Failed to send party request.");
-        }
+        publisher.publish(presence.status());
     }
 
     @Override
@@ -193,11 +322,11 @@ public final class DefaultPartyResource implements PartyResource {
                 chat.join(nick);
                 chat.sendMessage(message);
             } catch (final Exception exception) {
-                LOGGER.atWarning().log("Failed to create or send a message to party: " + partyId);
+                LOGGER.atWarning().log("Failed to create or send a message to party: %s", partyId);
             }
 
         } catch (final Exception exception) {
-            LOGGER.atWarning().withCause(exception).log("Failed to send message to party: " + partyId);
+            LOGGER.atWarning().withCause(exception).log("Failed to send message to party: %s", partyId);
         }
         return false;
     }
@@ -218,14 +347,19 @@ public final class DefaultPartyResource implements PartyResource {
     public void close() {
         connection.removeAsyncStanzaListener(messageListener);
         listeners.clear();
+        changeListeners.clear();
         parties.clear();
+        memberships.clear();
+        joiner.detach();
+        pending.cancelAll();
         connection = null;
     }
 
     @Override
     public void disposeConnection() {
         connection.removeAsyncStanzaListener(messageListener);
-
+        joiner.cancelAll();
+        pending.cancelAll();
     }
 
     @Override
@@ -248,18 +382,36 @@ public final class DefaultPartyResource implements PartyResource {
             if (message.getFrom().getLocalpartOrNull().equals(connection.getUser().getLocalpart())) return;
 
             try {
+                final var receivedEvent = StanzaReceivedEvent.arrived(message.getBody().length());
+                final var parseEvent = new StanzaParsedEvent();
+                parseEvent.begin();
+                final var parseStart = System.nanoTime();
                 final var reader = Json.createReader(new StringReader(message.getBody()));
                 final var data = reader.readObject();
                 reader.close();
+                final var parseTime = System.nanoTime() - parseStart;
+                parseEvent.end();
 
                 // acts to log all message even if they are not a party message
-                Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Received XMPP message from: " + message.getFrom().asUnescapedString() + "\nWith payload: " + data.toString());
+                if (configuration.doEnableLogging(LogCategory.PARTY_WIRE)) {
+                    LOGGER.atInfo().atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                            .log("Received XMPP message from: %s\nWith payload: %s", message.getFrom(), data);
+                }
 
                 final var payload = data.getJsonObject("payload");
 
                 final var type = PartyType.typeOf(data.getString("type"));
                 if (type == null) return; // not relevant
 
+                final var typeMetrics = metrics.party(type);
+                typeMetrics.received(message.getBody().length());
+                typeMetrics.parsed(parseTime);
+                receivedEvent.commit(accountId, "party", type.name());
+                parseEvent.commit(accountId, "party", type.name());
+                final var dispatchEvent = new StanzaDispatchedEvent();
+                dispatchEvent.begin();
+                final var dispatchStart = System.nanoTime();
+
                 // TODO: Move this down later? This will print messages from other stuff like friends, etc.
                 listeners.forEach(listener -> listener.onMessageReceived(message));
 
@@ -275,18 +427,19 @@ public final class DefaultPartyResource implements PartyResource {
 
                 var party = parties.get(partyId.get());
                 if (party != null && accessKey.isPresent() && !party.accessKey().equals(accessKey.get())) {
-                    Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Access key changed for party: " + party.partyId() + ". Attempting to retrieve new key if possible.");
-                    party = Party.fromPayload(payload);
+                    if (configuration.doEnableLogging(LogCategory.PARTY)) {
+                        LOGGER.atInfo().log("Access key changed for party: %s. Updating the key in place.", party.partyId());
+                    }
+                    party.rotateAccessKey(accessKey.get());
 
                     // update party leader
                     final var accountId = from.getLocalpartOrNull().asUnescapedString();
                     party.updatePartyLeaderId(accountId, from);
-                    parties.put(partyId.get(), party);
                 }
 
                 if (party == null) {
                     party = Party.fromPayload(payload);
-                    Logging.logInfoIfApplicable(LOGGER.atInfo(), enableLogging, "Party " + party.partyId() + " created!");
+                    if (configuration.doEnableLogging(LogCategory.PARTY)) LOGGER.atInfo().log("Party %s created!", party.partyId());
 
                     // update party leader
                     final var accountId = from.getLocalpartOrNull().asUnescapedString();
@@ -297,8 +450,12 @@ public final class DefaultPartyResource implements PartyResource {
                 // update the party and then invoke listeners.
                 updatePartyBasedOnType(party, type, payload, from);
                 invokeListeners(party, type, payload, from);
+                typeMetrics.dispatched(System.nanoTime() - dispatchStart);
+                dispatchEvent.commit(accountId, "party", type.name());
             } catch (final Exception exception) {
-                LOGGER.atWarning().withCause(exception).log("Failed to parse party message. from: " + packet.getFrom().asUnescapedString() + "\nPayload: " + message.getBody());
+                LOGGER.atWarning().withCause(exception).atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                        .log("Failed to parse party message. from: %s\nPayload: %s", packet.getFrom(), message.getBody());
+                recorder.dump("failed to parse message");
             }
         }
     }
@@ -317,12 +474,17 @@ public final class DefaultPartyResource implements PartyResource {
         if (type == PartyType.PARTY_JOIN_REQUEST_APPROVED) {
             JsonUtility.getArray("members", payload).ifPresentOrElse(array -> array.forEach(value -> {
                 final var object = value.asJsonObject();
-                party.addMember(PartyMember.newMember(object));
+                final var member = PartyMember.newMember(object);
+                party.addMember(member);
+                memberships.add(member.accountId(), party.partyId());
             }), () -> logMalformedType(type, payload, from));
             // a member joined, verify the request is valid.
         } else if (type == PartyType.PARTY_MEMBER_JOINED) {
-            JsonUtility.getObject("member", payload)
-                    .ifPresentOrElse(object -> party.addMember(PartyMember.newMember(object)), () -> logMalformedType(type, payload, from));
+            JsonUtility.getObject("member", payload).ifPresentOrElse(object -> {
+                final var member = PartyMember.newMember(object);
+                party.addMember(member);
+                memberships.add(member.accountId(), party.partyId());
+            }, () -> logMalformedType(type, payload, from));
             // a member exited
         } else if (type == PartyType.PARTY_MEMBER_EXITED) {
             final var memberId = JsonUtility.getString("memberId", payload);
@@ -333,6 +495,7 @@ public final class DefaultPartyResource implements PartyResource {
             }
 
             party.removeMemberById(memberId.get());
+            memberships.remove(memberId.get(), party.partyId());
             // party data was received
         } else if (type == PartyType.PARTY_DATA) {
             final var innerPayload = JsonUtility.getObject("payload", payload);
@@ -385,6 +548,44 @@ public final class DefaultPartyResource implements PartyResource {
         }
     }
 
+    /**
+     * Invokes a change listener for every field that changed, in one call so a single event is not a lambda per field.
+     *
+     * @param listener the listener
+     * @param party    the party
+     * @param member   the member
+     * @param change   the merge that changed the data of the member
+     */
+    private static void invokeChangeListener(final PartyMemberChangeListener listener, final Party party, final PartyMember member,
+                                             final MemberDataChange change) {
+        final var previous = change.previous();
+        final var data = change.merged();
+        final var changes = change.changes();
+        if ((changes & ImmutablePartyMemberData.SKIN) != 0) {
+            listener.onSkinChanged(party, member, previous == null ? null : previous.getSkin(), data.getSkin());
+        }
+        if ((changes & ImmutablePartyMemberData.BACKBLING) != 0) {
+            listener.onBackblingChanged(party, member, previous == null ? null : previous.getBackbling(), data.getBackbling());
+        }
+        if ((changes & ImmutablePartyMemberData.IS_READY) != 0) {
+            listener.onReadyChanged(party, member, data.isReady());
+        }
+        if ((changes & ImmutablePartyMemberData.CURRENT_EMOTE) != 0) {
+            // switching emotes stops the previous one before starting the next.
+            if (previous != null && previous.isEmoting()) listener.onEmoteStopped(party, member, previous.getCurrentEmote());
+            if (data.isEmoting()) listener.onEmoteStarted(party, member, data.getCurrentEmote());
+        }
+        if ((changes & ImmutablePartyMemberData.INPUT_TYPE) != 0) {
+            listener.onInputTypeChanged(party, member, previous == null ? null : previous.getInputType(), data.getInputType());
+        }
+        if ((changes & ImmutablePartyMemberData.LOCATION) != 0) {
+            listener.onLocationChanged(party, member, previous == null ? null : previous.getLocation(), data.getLocation());
+        }
+        if ((changes & ImmutablePartyMemberData.PLAYERS_LEFT) != 0) {
+            listener.onPlayersLeftChanged(party, member, previous == null ? 0 : previous.getPlayersLeft(), data.getPlayersLeft());
+        }
+    }
+
     /**
      * Invokes the listeners for what type was received and parses the payload if needed.
      * This method logs a warning and returns if an invalid payload was received.
@@ -406,7 +607,9 @@ public final class DefaultPartyResource implements PartyResource {
                 return;
             }
 
-            listeners.forEach(listener -> listener.onInvitationResponse(party, response.get() == 1 ? InvitationResponse.ACCEPTED : InvitationResponse.REJECTED, from));
+            final var invitationResponse = response.get() == 1 ? InvitationResponse.ACCEPTED : InvitationResponse.REJECTED;
+            pending.complete(PartyType.PARTY_INVITATION, party.partyId(), from, invitationResponse);
+            listeners.forEach(listener -> listener.onInvitationResponse(party, invitationResponse, from));
         } else if (type == PartyType.PARTY_QUERY_JOINABILITY) {
             // checks if the party is joinable, checks the cross play preference aswell
             final var joinData = JsonUtility.getObject("joinData", payload);
@@ -427,6 +630,8 @@ public final class DefaultPartyResource implements PartyResource {
                 logMalformedType(type, payload, from);
                 return;
             }
+            pending.complete(PartyType.PARTY_QUERY_JOINABILITY, party.partyId(), from,
+                    new JoinabilityResponse(isJoinable.get(), rejectionType.get(), resultParam.get()));
             listeners.forEach(listener -> listener.onQueryJoinabilityResponse(party, isJoinable.get(), rejectionType.get(), resultParam.get(), from));
         } else if (type == PartyType.PARTY_JOIN_REQUEST) {
             // a request to join the party
@@ -450,6 +655,7 @@ public final class DefaultPartyResource implements PartyResource {
 
             // request rejected
         } else if (type == PartyType.PARTY_JOIN_REQUEST_REJECTED) {
+            pending.fail(PartyType.PARTY_JOIN_REQUEST, party.partyId(), from, new PartyJoinException("The join request was rejected. (party: " + party.partyId() + ")"));
             listeners.forEach(listener -> listener.onJoinRequestRejected(party, from));
         } else if (type == PartyType.PARTY_JOIN_REQUEST_APPROVED) {
             // join request was approved, here is where the client will notify us
@@ -465,6 +671,8 @@ public final class DefaultPartyResource implements PartyResource {
             final var set = new HashSet<PartyMember>();
             array.forEach(value -> set.add(PartyMember.newMember(value.asJsonObject())));
             set.forEach(party::addMember);
+            // completed before the listeners, so a pending join sends its acknowledgement first.
+            pending.complete(PartyType.PARTY_JOIN_REQUEST, party.partyId(), from, set);
 
             listeners.forEach(listener -> listener.onJoinRequestApproved(party, set, from));
             // a join was acknowledged
@@ -472,9 +680,27 @@ public final class DefaultPartyResource implements PartyResource {
             listeners.forEach(listener -> listener.onJoinAcknowledged(party, from));
             // a response to the join acknowledged
         } else if (type == PartyType.PARTY_JOIN_ACKNOWLEDGED_RESPONSE) {
+            pending.complete(PartyType.PARTY_JOIN_ACKNOWLEDGED, party.partyId(), from, party);
             listeners.forEach(listener -> listener.onJoinAcknowledgedResponse(party, from));
         } else if (type == PartyType.PARTY_MEMBER_DATA) {
-            listeners.forEach(listener -> listener.onPartyMemberDataReceived(party, ImmutablePartyMemberData.adaptFrom(payload), from));
+            final var data = ImmutablePartyMemberData.adaptFrom(payload, configuration.doCompactMemberData());
+            final var localPart = from.getLocalpartOrNull();
+            final var member = data == null || localPart == null ? null : party.getMemberById(localPart.asUnescapedString());
+            if (member != null) {
+                // stale data is dropped, the listeners get the merged data of the member.
+                // the changes are only found when someone listens for them.
+                if (changeListeners.isEmpty()) {
+                    final var merged = member.mergeData(data);
+                    if (merged != null) listeners.forEach(listener -> listener.onPartyMemberDataReceived(party, merged, from));
+                    return;
+                }
+                final var change = member.mergeDataChanges(data);
+                if (change == null) return;
+                listeners.forEach(listener -> listener.onPartyMemberDataReceived(party, change.merged(), from));
+                if (change.changes() != 0) changeListeners.forEach(listener -> invokeChangeListener(listener, party, member, change));
+                return;
+            }
+            listeners.forEach(listener -> listener.onPartyMemberDataReceived(party, data, from));
             // a member joined.
         } else if (type == PartyType.PARTY_MEMBER_JOINED) {
             listeners.forEach(listener -> listener.onPartyMemberJoined(party, PartyMember.newMember(payload), from));
@@ -528,7 +754,9 @@ public final class DefaultPartyResource implements PartyResource {
      * @param from    who it was sent from
      */
     private void logMalformedType(final PartyType type, final JsonObject payload, final Jid from) {
-        LOGGER.atWarning().log("Invalid party message received from: " + from.asUnescapedString() + "\nType: " + type.getName() + "\nPayload as string: " + payload.toString());
+        metrics.party(type).malformed();
+        LOGGER.atWarning().atMostEvery(configuration.getPayloadLogRateLimit(), TimeUnit.SECONDS)
+                .log("Invalid party message received from: %s\nType: %s\nPayload as string: %s", from, type.getName(), payload);
     }
 
 }
@@ -1,15 +1,26 @@
 package me.vrekt.fortnitexmpp.party;
 
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
 import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.party.implementation.join.JoinabilityResponse;
 import me.vrekt.fortnitexmpp.party.implementation.listener.PartyListener;
+import me.vrekt.fortnitexmpp.party.implementation.listener.PartyMemberChangeListener;
 import me.vrekt.fortnitexmpp.party.implementation.member.PartyMember;
 import me.vrekt.fortnitexmpp.party.implementation.presence.PartyPresence;
 import me.vrekt.fortnitexmpp.party.implementation.request.PartyRequest;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinAcknowledged;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinRequest;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyQueryJoinability;
+import me.vrekt.fortnitexmpp.party.implementation.request.general.InvitationResponse;
+import me.vrekt.fortnitexmpp.party.implementation.request.general.PartyInvitation;
 import org.jivesoftware.smackx.muc.MultiUserChat;
 import org.jxmpp.jid.Jid;
 
 import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public interface PartyResource extends AutoCloseable {
 
@@ -20,6 +31,15 @@ public interface PartyResource extends AutoCloseable {
      */
     void addPartyListener(final PartyListener listener);
 
+    /**
+     * Adds a party listener that is invoked inside the provided {@code bulkhead}
+     * instead of on the connection thread, a slow listener will then only delay itself.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    void addPartyListener(final PartyListener listener, final Bulkhead bulkhead);
+
     /**
      * Removes a party listener
      *
@@ -27,6 +47,28 @@ public interface PartyResource extends AutoCloseable {
      */
     void removePartyListener(final PartyListener listener);
 
+    /**
+     * Adds a listener for changes to the data of party members.
+     *
+     * @param listener the listener
+     */
+    void addMemberChangeListener(final PartyMemberChangeListener listener);
+
+    /**
+     * Adds a listener for changes to the data of party members that is invoked inside the provided {@code bulkhead}.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    void addMemberChangeListener(final PartyMemberChangeListener listener, final Bulkhead bulkhead);
+
+    /**
+     * Removes a listener for changes to the data of party members.
+     *
+     * @param listener the listener
+     */
+    void removeMemberChangeListener(final PartyMemberChangeListener listener);
+
     /**
      * Sends a request to the provided {@code recipient}
      *
@@ -78,6 +120,94 @@ public interface PartyResource extends AutoCloseable {
      */
     boolean trySendRequestTo(final PartyRequest request, final Iterable<PartyMember> members);
 
+    /**
+     * Query if a party is joinable, using the timeout set in the configuration.
+     * Cancelling the returned future stops waiting for the response, this applies to every request below.
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @return a future completed with the response from the {@code recipient}
+     */
+    CompletableFuture<JoinabilityResponse> queryJoinability(final PartyQueryJoinability request, final Jid recipient);
+
+    /**
+     * Query if a party is joinable.
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @return a future completed with the response from the {@code recipient}
+     * or exceptionally with a {@link java.util.concurrent.TimeoutException}
+     */
+    CompletableFuture<JoinabilityResponse> queryJoinability(final PartyQueryJoinability request, final Jid recipient,
+                                                            final long timeout, final TimeUnit timeUnit);
+
+    /**
+     * Request to join a party, using the timeout set in the configuration.
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @return a future completed with the members of the party once approved,
+     * or exceptionally with a {@link me.vrekt.fortnitexmpp.exception.PartyJoinException} if rejected.
+     */
+    CompletableFuture<Set<PartyMember>> requestToJoin(final PartyJoinRequest request, final Jid recipient);
+
+    /**
+     * Request to join a party
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @return a future completed with the members of the party once approved,
+     * or exceptionally with a {@link me.vrekt.fortnitexmpp.exception.PartyJoinException} if rejected.
+     */
+    CompletableFuture<Set<PartyMember>> requestToJoin(final PartyJoinRequest request, final Jid recipient,
+                                                      final long timeout, final TimeUnit timeUnit);
+
+    /**
+     * Acknowledge an approved join request, using the timeout set in the configuration.
+     *
+     * @param request   the request
+     * @param recipient the recipient, who approved the join
+     * @return a future completed with the party once the acknowledgement is answered
+     */
+    CompletableFuture<Party> acknowledgeJoin(final PartyJoinAcknowledged request, final Jid recipient);
+
+    /**
+     * Acknowledge an approved join request
+     *
+     * @param request   the request
+     * @param recipient the recipient, who approved the join
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @return a future completed with the party once the acknowledgement is answered
+     */
+    CompletableFuture<Party> acknowledgeJoin(final PartyJoinAcknowledged request, final Jid recipient,
+                                             final long timeout, final TimeUnit timeUnit);
+
+    /**
+     * Invite to a party, using the timeout set in the configuration.
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @return a future completed with the response of the {@code recipient}
+     */
+    CompletableFuture<InvitationResponse> invite(final PartyInvitation request, final Jid recipient);
+
+    /**
+     * Invite to a party
+     *
+     * @param request   the request
+     * @param recipient the recipient
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @return a future completed with the response of the {@code recipient}
+     */
+    CompletableFuture<InvitationResponse> invite(final PartyInvitation request, final Jid recipient,
+                                                 final long timeout, final TimeUnit timeUnit);
+
     /**
      * @param partyId the ID of the party
      * @return the party that has the ID or {@code null} if no party was found
@@ -91,8 +221,18 @@ public interface PartyResource extends AutoCloseable {
      */
     void removePartyById(final String partyId);
 
+    /**
+     * Get the IDs of the tracked parties the provided account is a member of.
+     * This is kept up to date as members join and leave, it does not iterate the parties.
+     *
+     * @param accountId the account ID of the member
+     * @return the party IDs, empty if the account is not in any tracked party.
+     */
+    Set<String> getPartyIdsByMember(final String accountId);
+
     /**
      * Set your presence to the party
+     * The presence is sent through {@link me.vrekt.fortnitexmpp.FortniteXMPP#presencePublisher()}, it is not sent again if it did not change.
      *
      * @param presence the presence to use
      */
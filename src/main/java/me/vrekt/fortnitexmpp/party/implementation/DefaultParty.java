@@ -11,8 +11,11 @@ import org.jivesoftware.smackx.muc.MultiUserChat;
 import org.jxmpp.jid.Jid;
 
 import javax.json.JsonObject;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 public final class DefaultParty implements Party {
 
@@ -21,8 +24,13 @@ public final class DefaultParty implements Party {
      */
     public static int buildId = 5579635;
 
-    private final Set<PartyMember> members = new CopyOnWriteArraySet<>();
-    private final String partyId, accessKey;
+    // account ID -> member in the order they joined, guarded by itself.
+    private final Map<String, PartyMember> members = new LinkedHashMap<>();
+    // rebuilt on the first read after a member joined or left.
+    private volatile Set<PartyMember> snapshot = Collections.emptySet();
+    private volatile boolean changed;
+    private final String partyId;
+    private volatile String accessKey;
 
     private PartyConfiguration configuration;
     private String partyLeaderId;
@@ -68,9 +76,21 @@ public final class DefaultParty implements Party {
         return accessKey;
     }
 
+    @Override
+    public void rotateAccessKey(String accessKey) {
+        this.accessKey = accessKey;
+    }
+
     @Override
     public Set<PartyMember> members() {
-        return members;
+        if (!changed) return snapshot;
+        synchronized (members) {
+            if (changed) {
+                snapshot = Collections.unmodifiableSet(new LinkedHashSet<>(members.values()));
+                changed = false;
+            }
+            return snapshot;
+        }
     }
 
     @Override
@@ -91,30 +111,38 @@ public final class DefaultParty implements Party {
 
     @Override
     public void addMember(PartyMember member) {
-        // check if this member already exists.
-        if (members.stream().anyMatch(member1 -> member1.accountId().equals(member.accountId()))) return;
-        members.add(member);
+        synchronized (members) {
+            // keep the existing member so the join order does not change.
+            if (members.putIfAbsent(member.accountId(), member) == null) changed = true;
+        }
     }
 
     @Override
     public void removeMember(PartyMember member) {
-        members.remove(member);
+        synchronized (members) {
+            if (members.remove(member.accountId(), member)) changed = true;
+        }
     }
 
     @Override
     public void removeMemberById(String accountId) {
-        members.removeIf(member -> member.accountId().equals(accountId));
+        synchronized (members) {
+            if (members.remove(accountId) != null) changed = true;
+        }
     }
 
     @Override
     public PartyMember getMemberById(String accountId) {
-        return members.stream().filter(member -> member.accountId().equals(accountId)).findAny().orElse(null);
+        synchronized (members) {
+            return members.get(accountId);
+        }
     }
 
     @Override
     public Party updateConfigurationAndSend(PartyResource resource, PartyConfiguration configuration) {
         this.configuration = configuration;
 
+        final var members = members();
         resource.sendRequestTo(new PartyUpdateConfiguration(this, configuration), members);
         resource.sendRequestTo(PartyData.forNewPrivacySettings(configuration, partyId), members);
         return this;
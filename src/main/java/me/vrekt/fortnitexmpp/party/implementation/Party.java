@@ -44,7 +44,15 @@ public interface Party {
     String accessKey();
 
     /**
-     * @return a set of members who are in this party.
+     * Replace the access key, the members, configuration and leader are kept.
+     *
+     * @param accessKey the new access key
+     */
+    void rotateAccessKey(final String accessKey);
+
+    /**
+     * @return a set of members who are in this party, in the order they joined.
+     * The set is an immutable snapshot, it does not change when members join or leave.
      */
     Set<PartyMember> members();
 
@@ -0,0 +1,72 @@
+package me.vrekt.fortnitexmpp.party.implementation.join;
+
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of a successful join, with the latency of every phase.
+ */
+public final class JoinResult {
+
+    private final Party party;
+    private final int attempts;
+    private final long approvalNanos, pipelineNanos, acknowledgeNanos, totalNanos;
+
+    JoinResult(final Party party, final int attempts, final long approvalNanos, final long pipelineNanos,
+               final long acknowledgeNanos, final long totalNanos) {
+        this.party = party;
+        this.attempts = attempts;
+        this.approvalNanos = approvalNanos;
+        this.pipelineNanos = pipelineNanos;
+        this.acknowledgeNanos = acknowledgeNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return the party that was joined
+     */
+    public Party party() {
+        return party;
+    }
+
+    /**
+     * @return how many join requests were sent
+     */
+    public int attempts() {
+        return attempts;
+    }
+
+    /**
+     * @param unit the unit
+     * @return the time from sending the last join request until it was approved.
+     */
+    public long approval(final TimeUnit unit) {
+        return unit.convert(approvalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit
+     * @return the time from the approval until the acknowledgement and member data were sent.
+     */
+    public long pipeline(final TimeUnit unit) {
+        return unit.convert(pipelineNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit
+     * @return the time from sending the acknowledgement until the response to it.
+     */
+    public long acknowledge(final TimeUnit unit) {
+        return unit.convert(acknowledgeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit
+     * @return the time from the first join request until the join was acknowledged.
+     */
+    public long total(final TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
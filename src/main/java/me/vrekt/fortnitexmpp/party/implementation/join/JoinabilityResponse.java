@@ -0,0 +1,39 @@
+package me.vrekt.fortnitexmpp.party.implementation.join;
+
+/**
+ * The response to a {@link me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyQueryJoinability}
+ */
+public final class JoinabilityResponse {
+
+    private final boolean joinable;
+    private final int rejectionType;
+    private final String resultParam;
+
+    public JoinabilityResponse(final boolean joinable, final int rejectionType, final String resultParam) {
+        this.joinable = joinable;
+        this.rejectionType = rejectionType;
+        this.resultParam = resultParam;
+    }
+
+    /**
+     * @return {@code true} if the party can be joined
+     */
+    public boolean isJoinable() {
+        return joinable;
+    }
+
+    /**
+     * @return the rejection type, see {@link me.vrekt.fortnitexmpp.party.implementation.error.RejectionType}
+     */
+    public int rejectionType() {
+        return rejectionType;
+    }
+
+    /**
+     * @return the result param, most of the time an account ID.
+     */
+    public String resultParam() {
+        return resultParam;
+    }
+
+}
@@ -0,0 +1,247 @@
+package me.vrekt.fortnitexmpp.party.implementation.join;
+
+import com.google.common.flogger.FluentLogger;
+import me.vrekt.fortnitexmpp.exception.PartyJoinException;
+import me.vrekt.fortnitexmpp.party.PartyResource;
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.party.implementation.member.PartyMember;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinAcknowledged;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinRequest;
+import me.vrekt.fortnitexmpp.party.implementation.request.member.PartyMemberData;
+import me.vrekt.fortnitexmpp.presence.joinable.JoinablePartyIndex;
+import org.jxmpp.jid.Jid;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Joins parties without wiring the join flow by hand.
+ * The join request and acknowledgement are built before anything is sent, once the request is approved
+ * the acknowledgement and member data are sent right away, before any party listener is invoked.
+ * <p>
+ * Both phases are correlated through {@link PartyResource#requestToJoin} and {@link PartyResource#acknowledgeJoin},
+ * so responses are matched in one place. If no answer arrives within the timeout the current phase is sent again,
+ * until the retries are used up. A rejection or a request that could not be sent fails the join right away.
+ */
+public final class PartyJoinOrchestrator {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final int retries;
+    private final Map<String, Attempt> attempts = new ConcurrentHashMap<>();
+
+    private PartyResource resource;
+    private String displayName;
+
+    /**
+     * Initialize this orchestrator
+     *
+     * @param timeout  how long to wait for an answer before sending again
+     * @param timeUnit the time unit of {@code timeout}
+     * @param retries  how many times a phase is sent again before the join fails
+     */
+    public PartyJoinOrchestrator(final long timeout, final TimeUnit timeUnit, final int retries) {
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.retries = Math.max(0, retries);
+    }
+
+    /**
+     * Join parties through the provided resource.
+     *
+     * @param resource    the party resource
+     * @param displayName the display name of the account joining
+     */
+    public synchronized void attach(final PartyResource resource, final String displayName) {
+        this.resource = resource;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Stop joining, every pending join fails.
+     */
+    public synchronized void detach() {
+        cancelAll();
+        this.resource = null;
+    }
+
+    /**
+     * Join a party seen in a friend's presence.
+     *
+     * @param party      the party
+     * @param memberData the member data to send once approved, see {@link PartyMemberData#create}
+     * @return a future completed once the join is acknowledged
+     */
+    public CompletableFuture<JoinResult> join(final JoinablePartyIndex.JoinableParty party, final PartyMemberData memberData) {
+        return join(party.presence().getFrom(), party.partyId(), party.accessKey(), memberData, 1);
+    }
+
+    /**
+     * Join a party
+     *
+     * @param leader              who to request joining from
+     * @param partyId             the ID of the party
+     * @param accessKey           the access key of the party
+     * @param memberData          the member data to send once approved, see {@link PartyMemberData#create}
+     * @param crossplayPreference the preference of crossplay {@code 1} to opt in.
+     * @return a future completed once the join is acknowledged, or exceptionally with a {@link PartyJoinException}
+     */
+    public CompletableFuture<JoinResult> join(final Jid leader, final String partyId, final String accessKey,
+                                              final PartyMemberData memberData, final int crossplayPreference) {
+        final PartyResource resource;
+        final String displayName;
+        synchronized (this) {
+            resource = this.resource;
+            displayName = this.displayName;
+        }
+        if (resource == null) return CompletableFuture.failedFuture(new PartyJoinException("Not connected."));
+
+        final var attempt = new Attempt(resource, leader, partyId,
+                new PartyJoinRequest(partyId, accessKey, displayName, crossplayPreference), new PartyJoinAcknowledged(partyId), memberData);
+        final var existing = attempts.putIfAbsent(partyId, attempt);
+        if (existing != null) return existing.future;
+
+        attempt.started = System.nanoTime();
+        attempt.sendRequest();
+        return attempt.future;
+    }
+
+    /**
+     * Fails every pending join.
+     */
+    public void cancelAll() {
+        attempts.values().forEach(Attempt::cancel);
+    }
+
+    /**
+     * @return how many joins are pending
+     */
+    public int pending() {
+        return attempts.size();
+    }
+
+    /**
+     * One join, the request is sent until approved and then the acknowledgement until it is answered.
+     * Each phase is driven by the completion of the previous send, so only one runs at a time.
+     */
+    private final class Attempt {
+
+        private final PartyResource resource;
+        private final Jid leader;
+        private final String partyId;
+        private final PartyJoinRequest request;
+        private final PartyJoinAcknowledged acknowledgement;
+        private final PartyMemberData memberData;
+        private final CompletableFuture<JoinResult> future = new CompletableFuture<>();
+
+        // the response currently waited for, cancelled with the join.
+        private volatile CompletableFuture<?> current;
+        // resends counts the sends of the current phase after the first.
+        private int requests, resends;
+        private long started, requestSent, approved, pipelined;
+
+        private Attempt(final PartyResource resource, final Jid leader, final String partyId, final PartyJoinRequest request,
+                        final PartyJoinAcknowledged acknowledgement, final PartyMemberData memberData) {
+            this.resource = resource;
+            this.leader = leader;
+            this.partyId = partyId;
+            this.request = request;
+            this.acknowledgement = acknowledgement;
+            this.memberData = memberData;
+        }
+
+        private void sendRequest() {
+            requests++;
+            requestSent = System.nanoTime();
+            final var approval = resource.requestToJoin(request, leader, timeout, timeUnit);
+            current = approval;
+            approval.whenComplete((members, throwable) -> {
+                if (future.isDone()) return;
+                if (throwable == null) {
+                    approved(members);
+                } else if (shouldResend(throwable)) {
+                    sendRequest();
+                } else {
+                    fail(throwable, "Timed out waiting for approval.");
+                }
+            });
+        }
+
+        private void approved(final Set<PartyMember> members) {
+            approved = System.nanoTime();
+            resends = 0;
+            sendAcknowledgement(members);
+        }
+
+        private void sendAcknowledgement(final Set<PartyMember> members) {
+            final var acknowledged = resource.acknowledgeJoin(acknowledgement, leader, timeout, timeUnit);
+            current = acknowledged;
+            resource.sendRequestTo(memberData, members);
+            pipelined = System.nanoTime();
+            acknowledged.whenComplete((party, throwable) -> {
+                if (future.isDone()) return;
+                if (throwable == null) {
+                    acknowledged(party);
+                } else if (shouldResend(throwable)) {
+                    sendAcknowledgement(members);
+                } else {
+                    fail(throwable, "Timed out waiting for the acknowledgement.");
+                }
+            });
+        }
+
+        private void acknowledged(final Party party) {
+            final var now = System.nanoTime();
+            attempts.remove(partyId, this);
+            future.complete(new JoinResult(party, requests, approved - requestSent, pipelined - approved, now - pipelined, now - started));
+        }
+
+        /**
+         * Only a timeout is retried, a rejection or failed send is final.
+         */
+        private boolean shouldResend(final Throwable throwable) {
+            if (!(unwrap(throwable) instanceof TimeoutException) || resends >= retries) return false;
+            resends++;
+            LOGGER.atInfo().atMostEvery(10, TimeUnit.SECONDS).log("No answer from %s for party %s, sending again.", leader, partyId);
+            return true;
+        }
+
+        private void fail(final Throwable throwable, final String timedOut) {
+            final var cause = unwrap(throwable);
+            if (cause instanceof TimeoutException) {
+                fail(timedOut);
+            } else if (cause instanceof CancellationException) {
+                fail("The join was cancelled.");
+            } else if (cause instanceof PartyJoinException) {
+                attempts.remove(partyId, this);
+                future.completeExceptionally(cause);
+            } else {
+                fail("Failed to send: " + cause.getMessage());
+            }
+        }
+
+        private void fail(final String reason) {
+            attempts.remove(partyId, this);
+            future.completeExceptionally(new PartyJoinException(reason + " (party: " + partyId + ")"));
+        }
+
+        private void cancel() {
+            fail("The join was cancelled.");
+            final var current = this.current;
+            if (current != null) current.cancel(false);
+        }
+
+        private Throwable unwrap(final Throwable throwable) {
+            return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        }
+    }
+
+}
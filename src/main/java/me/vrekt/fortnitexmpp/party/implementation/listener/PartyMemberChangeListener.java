@@ -0,0 +1,44 @@
+package me.vrekt.fortnitexmpp.party.implementation.listener;
+
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.party.implementation.member.PartyMember;
+
+/**
+ * Listens for changes to the data of party members, only override the changes you need.
+ * A method is only invoked if the member sent the field and its value changed, the first data of a member counts as a change.
+ */
+public interface PartyMemberChangeListener {
+
+    default void onSkinChanged(final Party party, final PartyMember member, final String previous, final String skin) {
+
+    }
+
+    default void onBackblingChanged(final Party party, final PartyMember member, final String previous, final String backbling) {
+
+    }
+
+    default void onReadyChanged(final Party party, final PartyMember member, final boolean isReady) {
+
+    }
+
+    default void onEmoteStarted(final Party party, final PartyMember member, final String emote) {
+
+    }
+
+    default void onEmoteStopped(final Party party, final PartyMember member, final String emote) {
+
+    }
+
+    default void onInputTypeChanged(final Party party, final PartyMember member, final String previous, final String inputType) {
+
+    }
+
+    default void onLocationChanged(final Party party, final PartyMember member, final String previous, final String location) {
+
+    }
+
+    default void onPlayersLeftChanged(final Party party, final PartyMember member, final int previous, final int playersLeft) {
+
+    }
+
+}
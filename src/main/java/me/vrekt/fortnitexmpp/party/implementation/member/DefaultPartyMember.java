@@ -3,6 +3,7 @@ package me.vrekt.fortnitexmpp.party.implementation.member;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
 import me.vrekt.fortnitexmpp.party.implementation.member.connection.ConnectionType;
 import me.vrekt.fortnitexmpp.party.implementation.member.data.ImmutablePartyMemberData;
+import me.vrekt.fortnitexmpp.party.implementation.member.data.MemberDataChange;
 import me.vrekt.fortnitexmpp.type.PlatformType;
 import me.vrekt.fortnitexmpp.utility.FindPlatformUtility;
 import me.vrekt.fortnitexmpp.utility.JsonUtility;
@@ -17,7 +18,7 @@ public final class DefaultPartyMember implements PartyMember {
     private PlatformType platform;
     private Jid jid;
 
-    private ImmutablePartyMemberData data;
+    private volatile ImmutablePartyMemberData data;
 
     /**
      * Initializes this member
@@ -100,4 +101,22 @@ public final class DefaultPartyMember implements PartyMember {
     public void updateData(ImmutablePartyMemberData data) {
         this.data = data;
     }
+
+    @Override
+    public synchronized ImmutablePartyMemberData mergeData(ImmutablePartyMemberData data) {
+        final var previous = this.data;
+        final var merged = data.mergedWith(previous);
+        if (merged == previous) return null;
+        this.data = merged;
+        return merged;
+    }
+
+    @Override
+    public synchronized MemberDataChange mergeDataChanges(ImmutablePartyMemberData data) {
+        final var previous = this.data;
+        final var merged = data.mergedWith(previous);
+        if (merged == previous) return null;
+        this.data = merged;
+        return new MemberDataChange(previous, merged, data.changedFrom(previous));
+    }
 }
@@ -0,0 +1,55 @@
+package me.vrekt.fortnitexmpp.party.implementation.member;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the account ID of a member to the IDs of the tracked parties they are in.
+ */
+public final class MembershipIndex {
+
+    private final Map<String, Set<String>> partiesByMember = new ConcurrentHashMap<>();
+
+    /**
+     * @param accountId the account ID of the member
+     * @param partyId   the ID of the party they joined
+     */
+    public void add(final String accountId, final String partyId) {
+        // added inside compute, a concurrent remove could otherwise drop the set before it is added to.
+        partiesByMember.compute(accountId, (id, parties) -> {
+            final var set = parties == null ? ConcurrentHashMap.<String>newKeySet() : parties;
+            set.add(partyId);
+            return set;
+        });
+    }
+
+    /**
+     * @param accountId the account ID of the member
+     * @param partyId   the ID of the party they left
+     */
+    public void remove(final String accountId, final String partyId) {
+        partiesByMember.computeIfPresent(accountId, (id, parties) -> {
+            parties.remove(partyId);
+            return parties.isEmpty() ? null : parties;
+        });
+    }
+
+    /**
+     * @param accountId the account ID of the member
+     * @return the IDs of the parties the member is in, an unmodifiable view.
+     */
+    public Set<String> partiesOf(final String accountId) {
+        final var parties = partiesByMember.get(accountId);
+        return parties == null ? Collections.emptySet() : Collections.unmodifiableSet(parties);
+    }
+
+    /**
+     * Removes every member.
+     */
+    public void clear() {
+        partiesByMember.clear();
+    }
+
+}
@@ -2,6 +2,7 @@ package me.vrekt.fortnitexmpp.party.implementation.member;
 
 import me.vrekt.fortnitexmpp.party.implementation.member.connection.ConnectionType;
 import me.vrekt.fortnitexmpp.party.implementation.member.data.ImmutablePartyMemberData;
+import me.vrekt.fortnitexmpp.party.implementation.member.data.MemberDataChange;
 import me.vrekt.fortnitexmpp.type.PlatformType;
 import org.jxmpp.jid.Jid;
 
@@ -66,6 +67,7 @@ public interface PartyMember {
 
     /**
      * @return the data of this member, their cosmetic loadout, ready status, etc.
+     * This is every field received so far, not only the latest update.
      */
     ImmutablePartyMemberData data();
 
@@ -76,4 +78,22 @@ public interface PartyMember {
      */
     void updateData(ImmutablePartyMemberData data);
 
+    /**
+     * Merge newly received data into the data of this member, see {@link ImmutablePartyMemberData#mergedWith(ImmutablePartyMemberData)}
+     *
+     * @param data the data
+     * @return the data of this member after the merge, or {@code null} if the data was dropped because its revision is not newer.
+     */
+    ImmutablePartyMemberData mergeData(ImmutablePartyMemberData data);
+
+    /**
+     * Merge newly received data into the data of this member and find what changed, see {@link ImmutablePartyMemberData#changedFrom(ImmutablePartyMemberData)}
+     * This allocates a {@link MemberDataChange} for every merge, use {@link #mergeData(ImmutablePartyMemberData)} if the changes are not needed.
+     *
+     * @param data the data
+     * @return the data before and after the merge with the fields that changed,
+     * or {@code null} if the data was dropped because its revision is not newer.
+     */
+    MemberDataChange mergeDataChanges(ImmutablePartyMemberData data);
+
 }
@@ -3,16 +3,30 @@ package me.vrekt.fortnitexmpp.party.implementation.member.data;
 import me.vrekt.fortnitexmpp.utility.JsonUtility;
 
 import javax.json.JsonObject;
+import java.util.Objects;
 
 /**
  * Used for getting information about another party member.
  * This is Immutable meaning nothing here can be changed.
+ * <p>
+ * Members only send the attributes that changed, see {@link #mergedWith(ImmutablePartyMemberData)} for the complete state.
+ * <p>
+ * Compact data does not keep the payload and shares its strings with the data of other members,
+ * see {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration#setCompactMemberData(boolean)}
  */
 public final class ImmutablePartyMemberData {
 
+    // a bit for every field, set in present if the field was sent. The booleans are kept in values with the same bits.
+    // these are also the bits returned by changedFrom.
+    public static final int SKIN = 1, BACKBLING = 1 << 1, LOCATION = 1 << 2, CURRENT_EMOTE = 1 << 3, INPUT_TYPE = 1 << 4,
+            BANNER_ICON_ID = 1 << 5, BANNER_COLOR_ID = 1 << 6, PLATFORM = 1 << 7, HAS_PRELOADED = 1 << 8, IS_READY = 1 << 9,
+            HAS_PURCHASED_PASS = 1 << 10, PLAYERS_LEFT = 1 << 11, SEASON_LEVEL = 1 << 12, PASS_LEVEL = 1 << 13,
+            SELF_BOOST_XP = 1 << 14, FRIEND_BOOST_XP = 1 << 15;
+
     private String skin, backbling, location, currentEmote, inputType, bannerIconId, bannerColorId, platform;
-    private boolean hasPreloaded, isReady, hasPurchasedPass;
     private int playersLeft, seasonLevel, passLevel, selfBoostXp, friendBoostXp;
+    private int present, values;
+    private final int revision;
     private final JsonObject payload;
 
     /**
@@ -22,58 +36,195 @@ public final class ImmutablePartyMemberData {
      * @return a new {@link ImmutablePartyMemberData}
      */
     public static ImmutablePartyMemberData adaptFrom(final JsonObject payload) {
+        return adaptFrom(payload, false);
+    }
+
+    /**
+     * Adapt the provided {@code payload} and set the fields provided.
+     *
+     * @param payload the payload
+     * @param compact {@code true} to drop the payload and share strings with the data of other members.
+     * @return a new {@link ImmutablePartyMemberData}
+     */
+    public static ImmutablePartyMemberData adaptFrom(final JsonObject payload, final boolean compact) {
         final var innerPayload = JsonUtility.getObject("payload", payload);
         final var attributes = JsonUtility.getObject("Attrs", innerPayload.orElse(null));
         if (innerPayload.isEmpty() || attributes.isEmpty()) return null;
-        return new ImmutablePartyMemberData(payload, attributes.get());
+        return new ImmutablePartyMemberData(payload, JsonUtility.getInt("Rev", innerPayload.get()).orElse(-1), attributes.get(), compact);
     }
 
     /**
      * Initialize this data set, read everything that is useful and available.
      *
      * @param attributes the attributes
+     * @param compact    {@code true} to drop the payload and share strings.
      */
-    private ImmutablePartyMemberData(final JsonObject payload, final JsonObject attributes) {
-        this.payload = payload;
-        JsonUtility.getString("Location_s", attributes).ifPresent(location -> this.location = location);
-        JsonUtility.getBoolean("HasPreloadedAthena_b", attributes).ifPresent(hasPreloaded -> this.hasPreloaded = hasPreloaded);
+    private ImmutablePartyMemberData(final JsonObject payload, final int revision, final JsonObject attributes, final boolean compact) {
+        this.payload = compact ? null : payload;
+        this.revision = revision;
+        JsonUtility.getString("Location_s", attributes).ifPresent(location -> {
+            this.location = compact ? StringDictionary.canonical(location) : location;
+            present |= LOCATION;
+        });
+        JsonUtility.getBoolean("HasPreloadedAthena_b", attributes).ifPresent(hasPreloaded -> {
+            if (hasPreloaded) values |= HAS_PRELOADED;
+            present |= HAS_PRELOADED;
+        });
         JsonUtility.getObject("FrontendEmote_j", "FrontendEmote", attributes)
-                .ifPresent(object -> JsonUtility.getString("emoteItemDef", attributes).ifPresent(currentEmote -> this.currentEmote = currentEmote));
-        JsonUtility.getString("NumAthenaPlayersLeft_U", attributes).ifPresent(playersLeft -> this.playersLeft = Integer.valueOf(playersLeft));
-        JsonUtility.getBoolean("IsReadyAthena_b", attributes).ifPresent(isReady -> this.isReady = isReady);
-        JsonUtility.getString("CurrentInputType_s", attributes).ifPresent(inputType -> this.inputType = inputType);
+                .ifPresent(object -> JsonUtility.getString("emoteItemDef", object).ifPresent(currentEmote -> {
+                    this.currentEmote = compact ? StringDictionary.canonical(currentEmote) : currentEmote;
+                    present |= CURRENT_EMOTE;
+                }));
+        JsonUtility.getString("NumAthenaPlayersLeft_U", attributes).ifPresent(playersLeft -> {
+            this.playersLeft = Integer.valueOf(playersLeft);
+            present |= PLAYERS_LEFT;
+        });
+        JsonUtility.getBoolean("IsReadyAthena_b", attributes).ifPresent(isReady -> {
+            if (isReady) values |= IS_READY;
+            present |= IS_READY;
+        });
+        JsonUtility.getString("CurrentInputType_s", attributes).ifPresent(inputType -> {
+            this.inputType = compact ? StringDictionary.canonical(inputType) : inputType;
+            present |= INPUT_TYPE;
+        });
 
         // skin, backbling, pickaxe.
         // TODO: Add pickaxe definition? kinda useless.
         JsonUtility.getObject("AthenaCosmeticLoadout_j", "AthenaCosmeticLoadout", attributes)
                 .ifPresent(object -> {
-                    JsonUtility.getString("characterDefinition", object).ifPresent(skin -> this.skin = skin);
-                    JsonUtility.getString("backpackDefinition", object).ifPresent(backbling -> this.backbling = backbling);
+                    JsonUtility.getString("characterDefinition", object).ifPresent(skin -> {
+                        this.skin = compact ? StringDictionary.canonical(skin) : skin;
+                        present |= SKIN;
+                    });
+                    JsonUtility.getString("backpackDefinition", object).ifPresent(backbling -> {
+                        this.backbling = compact ? StringDictionary.canonical(backbling) : backbling;
+                        present |= BACKBLING;
+                    });
                 });
         // banner stuff
         JsonUtility.getObject("AthenaBannerInfo_j", "AthenaBannerInfo", attributes)
                 .ifPresent(object -> {
-                    JsonUtility.getString("bannerIconId", object).ifPresent(bannerIconId -> this.bannerIconId = bannerIconId);
-                    JsonUtility.getString("bannerColorId", object).ifPresent(bannerColorId -> this.bannerColorId = bannerColorId);
-                    JsonUtility.getInt("seasonLevel", object).ifPresent(seasonLevel -> this.seasonLevel = seasonLevel);
+                    JsonUtility.getString("bannerIconId", object).ifPresent(bannerIconId -> {
+                        this.bannerIconId = compact ? StringDictionary.canonical(bannerIconId) : bannerIconId;
+                        present |= BANNER_ICON_ID;
+                    });
+                    JsonUtility.getString("bannerColorId", object).ifPresent(bannerColorId -> {
+                        this.bannerColorId = compact ? StringDictionary.canonical(bannerColorId) : bannerColorId;
+                        present |= BANNER_COLOR_ID;
+                    });
+                    JsonUtility.getInt("seasonLevel", object).ifPresent(seasonLevel -> {
+                        this.seasonLevel = seasonLevel;
+                        present |= SEASON_LEVEL;
+                    });
                 });
         // battle pass information
         JsonUtility.getObject("BattlePassInfo_j", "BattlePassInfo", attributes)
                 .ifPresent(object -> {
-                    JsonUtility.getBoolean("bHasPurchasedPass", object).ifPresent(hasPurchasedPass -> this.hasPurchasedPass = hasPurchasedPass);
-                    JsonUtility.getInt("passLevel", object).ifPresent(passLevel -> this.passLevel = passLevel);
-                    JsonUtility.getInt("selfBoostXp", object).ifPresent(selfBoostXp -> this.selfBoostXp = selfBoostXp);
-                    JsonUtility.getInt("friendBoostXp", object).ifPresent(friendBoostXp -> this.friendBoostXp = friendBoostXp);
+                    JsonUtility.getBoolean("bHasPurchasedPass", object).ifPresent(hasPurchasedPass -> {
+                        if (hasPurchasedPass) values |= HAS_PURCHASED_PASS;
+                        present |= HAS_PURCHASED_PASS;
+                    });
+                    JsonUtility.getInt("passLevel", object).ifPresent(passLevel -> {
+                        this.passLevel = passLevel;
+                        present |= PASS_LEVEL;
+                    });
+                    JsonUtility.getInt("selfBoostXp", object).ifPresent(selfBoostXp -> {
+                        this.selfBoostXp = selfBoostXp;
+                        present |= SELF_BOOST_XP;
+                    });
+                    JsonUtility.getInt("friendBoostXp", object).ifPresent(friendBoostXp -> {
+                        this.friendBoostXp = friendBoostXp;
+                        present |= FRIEND_BOOST_XP;
+                    });
                 });
         // their platform.
         JsonUtility.getObject("Platform_j", "Platform", attributes)
-                .ifPresent(object -> JsonUtility.getString("platformStr", object).ifPresent(platform -> this.platform = platform));
+                .ifPresent(object -> JsonUtility.getString("platformStr", object).ifPresent(platform -> {
+                    this.platform = compact ? StringDictionary.canonical(platform) : platform;
+                    present |= PLATFORM;
+                }));
     }
 
+    /**
+     * Initialize this data set from {@code newer}, filling the fields it did not send from {@code older}
+     *
+     * @param newer the newer data
+     * @param older the older data
+     */
+    private ImmutablePartyMemberData(final ImmutablePartyMemberData newer, final ImmutablePartyMemberData older) {
+        this.payload = newer.payload;
+        this.revision = newer.revision;
+        this.present = newer.present | older.present;
+        final var from = newer.present;
+        values = (newer.values & from) | (older.values & ~from);
+        skin = (from & SKIN) != 0 ? newer.skin : older.skin;
+        backbling = (from & BACKBLING) != 0 ? newer.backbling : older.backbling;
+        location = (from & LOCATION) != 0 ? newer.location : older.location;
+        currentEmote = (from & CURRENT_EMOTE) != 0 ? newer.currentEmote : older.currentEmote;
+        inputType = (from & INPUT_TYPE) != 0 ? newer.inputType : older.inputType;
+        bannerIconId = (from & BANNER_ICON_ID) != 0 ? newer.bannerIconId : older.bannerIconId;
+        bannerColorId = (from & BANNER_COLOR_ID) != 0 ? newer.bannerColorId : older.bannerColorId;
+        platform = (from & PLATFORM) != 0 ? newer.platform : older.platform;
+        playersLeft = (from & PLAYERS_LEFT) != 0 ? newer.playersLeft : older.playersLeft;
+        seasonLevel = (from & SEASON_LEVEL) != 0 ? newer.seasonLevel : older.seasonLevel;
+        passLevel = (from & PASS_LEVEL) != 0 ? newer.passLevel : older.passLevel;
+        selfBoostXp = (from & SELF_BOOST_XP) != 0 ? newer.selfBoostXp : older.selfBoostXp;
+        friendBoostXp = (from & FRIEND_BOOST_XP) != 0 ? newer.friendBoostXp : older.friendBoostXp;
+    }
+
+    /**
+     * Merge this data onto the {@code previous} data of the same member.
+     *
+     * @param previous the previous data, or {@code null}
+     * @return a new data set with the fields sent in this one and the rest from {@code previous},
+     * or {@code previous} if this data is older or the same revision.
+     */
+    public ImmutablePartyMemberData mergedWith(final ImmutablePartyMemberData previous) {
+        if (previous == null) return this;
+        if (revision != -1 && previous.revision != -1 && revision <= previous.revision) return previous;
+        return new ImmutablePartyMemberData(this, previous);
+    }
+
+    /**
+     * Find the fields this data sent that differ from {@code previous}, fields that were not sent are never compared.
+     *
+     * @param previous the previous data, or {@code null}
+     * @return the bits of the changed fields, for example {@link #SKIN}
+     */
+    public int changedFrom(final ImmutablePartyMemberData previous) {
+        if (previous == null) return present;
+
+        var changed = present & (values ^ previous.values) & (HAS_PRELOADED | IS_READY | HAS_PURCHASED_PASS);
+        if ((present & SKIN) != 0 && !Objects.equals(skin, previous.skin)) changed |= SKIN;
+        if ((present & BACKBLING) != 0 && !Objects.equals(backbling, previous.backbling)) changed |= BACKBLING;
+        if ((present & LOCATION) != 0 && !Objects.equals(location, previous.location)) changed |= LOCATION;
+        if ((present & CURRENT_EMOTE) != 0 && !Objects.equals(currentEmote, previous.currentEmote)) changed |= CURRENT_EMOTE;
+        if ((present & INPUT_TYPE) != 0 && !Objects.equals(inputType, previous.inputType)) changed |= INPUT_TYPE;
+        if ((present & BANNER_ICON_ID) != 0 && !Objects.equals(bannerIconId, previous.bannerIconId)) changed |= BANNER_ICON_ID;
+        if ((present & BANNER_COLOR_ID) != 0 && !Objects.equals(bannerColorId, previous.bannerColorId)) changed |= BANNER_COLOR_ID;
+        if ((present & PLATFORM) != 0 && !Objects.equals(platform, previous.platform)) changed |= PLATFORM;
+        if ((present & PLAYERS_LEFT) != 0 && playersLeft != previous.playersLeft) changed |= PLAYERS_LEFT;
+        if ((present & SEASON_LEVEL) != 0 && seasonLevel != previous.seasonLevel) changed |= SEASON_LEVEL;
+        if ((present & PASS_LEVEL) != 0 && passLevel != previous.passLevel) changed |= PASS_LEVEL;
+        if ((present & SELF_BOOST_XP) != 0 && selfBoostXp != previous.selfBoostXp) changed |= SELF_BOOST_XP;
+        if ((present & FRIEND_BOOST_XP) != 0 && friendBoostXp != previous.friendBoostXp) changed |= FRIEND_BOOST_XP;
+        return changed;
+    }
+
+    /**
+     * @return the payload of the latest data received, {@code null} if this data is compact.
+     */
     public JsonObject payload() {
         return payload;
     }
 
+    /**
+     * @return the {@code Rev} of this data, or {@code -1} if it was not sent.
+     */
+    public int revision() {
+        return revision;
+    }
+
     public String getSkin() {
         return skin;
     }
@@ -107,15 +258,22 @@ public final class ImmutablePartyMemberData {
     }
 
     public boolean hasPreloaded() {
-        return hasPreloaded;
+        return (values & HAS_PRELOADED) != 0;
     }
 
     public boolean isReady() {
-        return isReady;
+        return (values & IS_READY) != 0;
     }
 
     public boolean hasPurchasedPass() {
-        return hasPurchasedPass;
+        return (values & HAS_PURCHASED_PASS) != 0;
+    }
+
+    /**
+     * @return {@code true} if this member is currently playing an emote.
+     */
+    public boolean isEmoting() {
+        return currentEmote != null && !currentEmote.isEmpty() && !currentEmote.equals("None");
     }
 
     public int getPlayersLeft() {
@@ -0,0 +1,46 @@
+package me.vrekt.fortnitexmpp.party.implementation.member.data;
+
+/**
+ * The result of merging received data into the data of a member, taken while the member was locked
+ * so {@link #previous()}, {@link #merged()} and {@link #changes()} always belong together.
+ */
+public final class MemberDataChange {
+
+    private final ImmutablePartyMemberData previous, merged;
+    private final int changes;
+
+    /**
+     * Initialize this change
+     *
+     * @param previous the data before the merge, or {@code null}
+     * @param merged   the data after the merge
+     * @param changes  the bits of the fields that changed, see {@link ImmutablePartyMemberData#changedFrom(ImmutablePartyMemberData)}
+     */
+    public MemberDataChange(final ImmutablePartyMemberData previous, final ImmutablePartyMemberData merged, final int changes) {
+        this.previous = previous;
+        this.merged = merged;
+        this.changes = changes;
+    }
+
+    /**
+     * @return the data of the member before the merge, {@code null} if this was their first data.
+     */
+    public ImmutablePartyMemberData previous() {
+        return previous;
+    }
+
+    /**
+     * @return the data of the member after the merge.
+     */
+    public ImmutablePartyMemberData merged() {
+        return merged;
+    }
+
+    /**
+     * @return the bits of the fields that changed, for example {@link ImmutablePartyMemberData#SKIN}
+     */
+    public int changes() {
+        return changes;
+    }
+
+}
@@ -0,0 +1,31 @@
+package me.vrekt.fortnitexmpp.party.implementation.member.data;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares equal strings between member data, cosmetic IDs and the like repeat across many members.
+ * The dictionary is bounded, once full new strings are no longer shared.
+ */
+final class StringDictionary {
+
+    private static final int MAX_SIZE = 1 << 16;
+    private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * @param value the string
+     * @return the shared instance equal to {@code value}
+     */
+    static String canonical(final String value) {
+        if (value == null) return null;
+        final var existing = STRINGS.get(value);
+        if (existing != null) return existing;
+        if (STRINGS.size() >= MAX_SIZE) return value;
+        final var raced = STRINGS.putIfAbsent(value, value);
+        return raced == null ? value : raced;
+    }
+
+}
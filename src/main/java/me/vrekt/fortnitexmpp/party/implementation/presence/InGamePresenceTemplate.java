@@ -0,0 +1,234 @@
+package me.vrekt.fortnitexmpp.party.implementation.presence;
+
+import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.type.PlatformType;
+import org.apache.commons.lang3.RandomStringUtils;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A mutable in-game presence for presences that are updated often.
+ * The status JSON is built once, only the status text, party size, players alive and server player count are patched into it.
+ * The status is rendered into a reused buffer and only when something changed.
+ * <p>
+ * Produces the same status as {@link PublicPartyInGamePresence} and {@link PrivatePartyInGamePresence}
+ */
+public final class InGamePresenceTemplate implements PartyPresence {
+
+    private static final String STATUS = "@@STATUS@@", PARTY_SIZE = "@@PARTY_SIZE@@",
+            PLAYERS_ALIVE = "@@PLAYERS_ALIVE@@", SERVER_PLAYER_COUNT = "@@SERVER_PLAYER_COUNT@@";
+
+    // the JSON between slots, segments[i] is written before slots[i].
+    private final String[] segments;
+    private final String[] slots;
+    private final int maxMembers;
+    private final StringBuilder buffer;
+
+    private String statusText;
+    private int partySize, playersAlive, serverPlayerCount;
+    private String status;
+
+    /**
+     * Creates a public party template, that has the 'join game' option.
+     * See {@link PublicPartyInGamePresence} for the parameters.
+     *
+     * @return a new {@link InGamePresenceTemplate}
+     */
+    public static InGamePresenceTemplate createPublic(final FortniteXMPP fortniteXMPP, final Party party, final PlatformType platformType,
+                                                      final String playing, final String sessionId, final String sessionKey, final String playlist,
+                                                      final int playersAlive, final int serverPlayerCount) {
+        final var id = RandomStringUtils.randomAlphanumeric(32).toLowerCase();
+        final var key = RandomStringUtils.randomAlphanumeric(32).toUpperCase();
+        final var partyJoinInfoData = PresenceUtility.createJoinInfo(id, key, fortniteXMPP.accountId(), fortniteXMPP.displayName(), platformType.name());
+        final var properties = PresenceUtility.createBasicProperties()
+                .add("GamePlaylistName_s", playlist)
+                .add("Event_PlayersAlive_s", PLAYERS_ALIVE)
+                .add("Event_PartySize_s", PARTY_SIZE)
+                .add("Event_PartyMaxSize_s", String.valueOf(party.configuration().maxMembers()))
+                .add(Party.PARTY_DATA_INFO, partyJoinInfoData.build())
+                .add("ServerPlayerCount_i", SERVER_PLAYER_COUNT)
+                .add("GameSessionJoinKey_s", sessionKey);
+        return new InGamePresenceTemplate(createTemplate(sessionId, properties.build()), party, playing, playersAlive, serverPlayerCount);
+    }
+
+    /**
+     * Creates a private party template.
+     * See {@link PrivatePartyInGamePresence} for the parameters.
+     *
+     * @return a new {@link InGamePresenceTemplate}
+     */
+    public static InGamePresenceTemplate createPrivate(final Party party, final String playing, final String sessionId,
+                                                       final String playlist, final int playersAlive, final int serverPlayerCount) {
+        final var properties = PresenceUtility.createBasicProperties()
+                .add("GamePlaylistName_s", playlist)
+                .add("Event_PlayersAlive_s", PLAYERS_ALIVE)
+                .add("Event_PartySize_s", PARTY_SIZE)
+                .add("Event_PartyMaxSize_s", String.valueOf(party.configuration().maxMembers()))
+                .add("ServerPlayerCount_i", SERVER_PLAYER_COUNT);
+        return new InGamePresenceTemplate(createTemplate(sessionId, properties.build()), party, playing, playersAlive, serverPlayerCount);
+    }
+
+    private static String createTemplate(final String sessionId, final JsonObject properties) {
+        return Json.createObjectBuilder()
+                .add("Status", STATUS)
+                .add("bIsPlaying", true)
+                .add("bIsJoinable", true)
+                .add("bHasVoiceSupport", false)
+                .add("SessionId", sessionId)
+                .add("Properties", properties).build().toString();
+    }
+
+    private InGamePresenceTemplate(final String template, final Party party, final String playing, final int playersAlive, final int serverPlayerCount) {
+        this.maxMembers = party.configuration().maxMembers();
+        this.statusText = escape(playing);
+        this.partySize = party.members().size();
+        this.playersAlive = playersAlive;
+        this.serverPlayerCount = serverPlayerCount;
+
+        // find every slot in the order they appear.
+        final var found = new ArrayList<int[]>();
+        final var names = List.of(STATUS, PARTY_SIZE, PLAYERS_ALIVE, SERVER_PLAYER_COUNT);
+        for (int i = 0; i < names.size(); i++) {
+            final var index = template.indexOf(names.get(i));
+            if (index != -1) found.add(new int[]{index, i});
+        }
+        found.sort(Comparator.comparingInt(slot -> slot[0]));
+
+        this.segments = new String[found.size() + 1];
+        this.slots = new String[found.size()];
+        var from = 0;
+        for (int i = 0; i < found.size(); i++) {
+            final var slot = names.get(found.get(i)[1]);
+            var start = found.get(i)[0];
+            var end = start + slot.length();
+            // numbers are written without quotes.
+            if (slot.equals(SERVER_PLAYER_COUNT)) {
+                start--;
+                end++;
+            }
+            segments[i] = template.substring(from, start);
+            slots[i] = slot;
+            from = end;
+        }
+        segments[found.size()] = template.substring(from);
+        this.buffer = new StringBuilder(template.length() + 32);
+    }
+
+    /**
+     * @param playing the message to show, for example {@code "Battle Royale Lobby"}
+     * @return this template
+     */
+    public synchronized InGamePresenceTemplate setStatusText(final String playing) {
+        final var escaped = escape(playing);
+        if (!escaped.equals(statusText)) {
+            statusText = escaped;
+            status = null;
+        }
+        return this;
+    }
+
+    /**
+     * @param partySize the size of the party
+     * @return this template
+     */
+    public synchronized InGamePresenceTemplate setPartySize(final int partySize) {
+        if (this.partySize != partySize) {
+            this.partySize = partySize;
+            status = null;
+        }
+        return this;
+    }
+
+    /**
+     * @param playersAlive how many players are alive
+     * @return this template
+     */
+    public synchronized InGamePresenceTemplate setPlayersAlive(final int playersAlive) {
+        if (this.playersAlive != playersAlive) {
+            this.playersAlive = playersAlive;
+            status = null;
+        }
+        return this;
+    }
+
+    /**
+     * @param serverPlayerCount how many players are in the server
+     * @return this template
+     */
+    public synchronized InGamePresenceTemplate setServerPlayerCount(final int serverPlayerCount) {
+        if (this.serverPlayerCount != serverPlayerCount) {
+            this.serverPlayerCount = serverPlayerCount;
+            status = null;
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized String status() {
+        if (status != null) return status;
+
+        buffer.setLength(0);
+        for (int i = 0; i < slots.length; i++) {
+            buffer.append(segments[i]);
+            switch (slots[i]) {
+                case STATUS:
+                    buffer.append(statusText).append(" - ").append(partySize).append(" / ").append(maxMembers);
+                    break;
+                case PARTY_SIZE:
+                    buffer.append(partySize);
+                    break;
+                case PLAYERS_ALIVE:
+                    buffer.append(playersAlive);
+                    break;
+                case SERVER_PLAYER_COUNT:
+                    buffer.append(serverPlayerCount);
+                    break;
+            }
+        }
+        buffer.append(segments[slots.length]);
+        return status = buffer.toString();
+    }
+
+    /**
+     * Escapes the text so it can be placed inside a JSON string.
+     */
+    private static String escape(final String text) {
+        StringBuilder builder = null;
+        for (int i = 0; i < text.length(); i++) {
+            final var c = text.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                if (builder != null) builder.append(c);
+                continue;
+            }
+
+            if (builder == null) builder = new StringBuilder(text.length() + 8).append(text, 0, i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    builder.append(String.format("\\u%04x", (int) c));
+                    break;
+            }
+        }
+        return builder == null ? text : builder.toString();
+    }
+
+}
@@ -0,0 +1,142 @@
+package me.vrekt.fortnitexmpp.party.implementation.presence;
+
+import com.google.common.flogger.FluentLogger;
+import me.vrekt.fortnitexmpp.metrics.implementation.StanzaMetrics;
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.packet.Presence;
+import org.jivesoftware.smack.tcp.XMPPTCPConnection;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the presence of one account.
+ * A status identical to the last one sent is never sent again, and statuses published faster than the minimum interval
+ * are coalesced so only the latest one is sent once the interval has passed.
+ */
+public final class PresencePublisher {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+
+    private final ScheduledExecutorService service;
+    private final long minimumIntervalNanos;
+    private final StanzaMetrics metrics;
+    private final LongAdder sent = new LongAdder(), suppressed = new LongAdder();
+
+    private XMPPTCPConnection connection;
+    private String lastSent, pending;
+    private long lastSentAt;
+    private ScheduledFuture<?> flush;
+
+    /**
+     * Initialize this publisher
+     *
+     * @param service         the service used to send coalesced statuses
+     * @param minimumInterval the minimum time between two presences, {@code 0} to only skip identical statuses.
+     * @param timeUnit        the time unit of {@code minimumInterval}
+     * @param metrics         where sent presences are counted
+     */
+    public PresencePublisher(final ScheduledExecutorService service, final long minimumInterval, final TimeUnit timeUnit, final StanzaMetrics metrics) {
+        this.service = service;
+        this.minimumIntervalNanos = minimumInterval <= 0 || timeUnit == null ? 0 : timeUnit.toNanos(minimumInterval);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Publish presences on the provided connection.
+     * The last status is forgotten since the new connection has not sent any presence yet.
+     *
+     * @param connection the connection
+     */
+    public synchronized void attach(final XMPPTCPConnection connection) {
+        this.connection = connection;
+        lastSent = null;
+    }
+
+    /**
+     * Stop publishing, any pending status is dropped.
+     */
+    public synchronized void detach() {
+        connection = null;
+        pending = null;
+        if (flush != null) {
+            flush.cancel(false);
+            flush = null;
+        }
+    }
+
+    /**
+     * Publish the status, it is sent now, later or not at all if it is identical to the last status sent.
+     *
+     * @param status the status
+     */
+    public synchronized void publish(final String status) {
+        if (pending != null) {
+            // last writer wins, the pending status is never sent.
+            suppressed.increment();
+            pending = status;
+            return;
+        }
+
+        if (status.equals(lastSent)) {
+            suppressed.increment();
+            return;
+        }
+
+        final var wait = lastSentAt + minimumIntervalNanos - System.nanoTime();
+        if (lastSent == null || wait <= 0) {
+            send(status);
+        } else {
+            pending = status;
+            flush = service.schedule(this::flush, wait, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending status now, if any.
+     */
+    public synchronized void flush() {
+        flush = null;
+        final var status = pending;
+        if (status == null) return;
+        pending = null;
+
+        if (status.equals(lastSent)) {
+            suppressed.increment();
+        } else {
+            send(status);
+        }
+    }
+
+    /**
+     * @return how many presences were sent.
+     */
+    public long sent() {
+        return sent.sum();
+    }
+
+    /**
+     * @return how many statuses were not sent because they were identical or replaced by a newer status.
+     */
+    public long suppressed() {
+        return suppressed.sum();
+    }
+
+    private void send(final String status) {
+        if (connection == null) return;
+        final var packet = new Presence(Presence.Type.available, status, 0, Presence.Mode.available);
+        try {
+            connection.sendStanza(packet);
+            lastSent = status;
+            lastSentAt = System.nanoTime();
+            sent.increment();
+            metrics.sent(status.length());
+        } catch (final SmackException.NotConnectedException | InterruptedException exception) {
+            LOGGER.atWarning().withCause(exception).log("Failed to send presence.");
+            metrics.sendFailed();
+        }
+    }
+
+}
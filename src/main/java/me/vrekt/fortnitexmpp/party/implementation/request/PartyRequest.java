@@ -1,5 +1,7 @@
 package me.vrekt.fortnitexmpp.party.implementation.request;
 
+import me.vrekt.fortnitexmpp.party.type.PartyType;
+
 public interface PartyRequest  {
 
     /**
@@ -7,4 +9,9 @@ public interface PartyRequest  {
      */
     String payload();
 
+    /**
+     * @return the type of this request.
+     */
+    PartyType type();
+
 }
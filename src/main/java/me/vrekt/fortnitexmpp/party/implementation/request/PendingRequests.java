@@ -0,0 +1,147 @@
+package me.vrekt.fortnitexmpp.party.implementation.request;
+
+import me.vrekt.fortnitexmpp.party.type.PartyType;
+import org.jxmpp.jid.Jid;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests that are waiting for a response.
+ * A request is matched with its response by the request type, the party ID and who it was sent to.
+ * <p>
+ * The table is bounded: registering fails once the maximum amount of requests is pending.
+ * Entries are removed when the future completes, including when it times out or is cancelled.
+ */
+public final class PendingRequests {
+
+    private final Map<Key, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maximum;
+
+    /**
+     * Initialize this table
+     *
+     * @param maximum the maximum amount of pending requests
+     */
+    public PendingRequests(final int maximum) {
+        this.maximum = Math.max(1, maximum);
+    }
+
+    /**
+     * Register a request.
+     *
+     * @param type      the type of the request
+     * @param partyId   the ID of the party
+     * @param recipient who the request is sent to
+     * @param timeout   how long to wait for the response
+     * @param timeUnit  the time unit of {@code timeout}
+     * @param <T>       the type of the response
+     * @return the future completed with the response, the pending future if the same request is already pending and not done,
+     * or a failed future if too many requests are pending.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> register(final PartyType type, final String partyId, final Jid recipient, final long timeout, final TimeUnit timeUnit) {
+        final var key = new Key(type, partyId, recipient);
+        while (true) {
+            final var existing = pending.get(key);
+            if (existing != null) {
+                if (!existing.isDone()) return (CompletableFuture<T>) existing;
+                // completed but not removed yet, for example when the request is sent again from a completion callback.
+                if (pending.remove(key, existing)) size.decrementAndGet();
+            }
+
+            if (size.incrementAndGet() > maximum) {
+                size.decrementAndGet();
+                return CompletableFuture.failedFuture(new IllegalStateException("Too many pending party requests (" + maximum + ")"));
+            }
+
+            final var future = new CompletableFuture<>();
+            final var raced = pending.putIfAbsent(key, future);
+            if (raced != null) {
+                size.decrementAndGet();
+                if (!raced.isDone()) return (CompletableFuture<T>) raced;
+                continue;
+            }
+
+            future.whenComplete((result, throwable) -> {
+                if (pending.remove(key, future)) size.decrementAndGet();
+            });
+            future.orTimeout(timeout, timeUnit);
+            return (CompletableFuture<T>) future;
+        }
+    }
+
+    /**
+     * Complete the request matching the response.
+     *
+     * @param type     the type of the request this is a response to
+     * @param partyId  the ID of the party
+     * @param from     who the response is from
+     * @param response the response
+     */
+    public void complete(final PartyType type, final String partyId, final Jid from, final Object response) {
+        if (size.get() == 0) return;
+        final var future = pending.get(new Key(type, partyId, from));
+        if (future != null) future.complete(response);
+    }
+
+    /**
+     * Fail the request matching the response.
+     *
+     * @param type      the type of the request this is a response to
+     * @param partyId   the ID of the party
+     * @param from      who the response is from
+     * @param exception why the request failed
+     */
+    public void fail(final PartyType type, final String partyId, final Jid from, final Throwable exception) {
+        if (size.get() == 0) return;
+        final var future = pending.get(new Key(type, partyId, from));
+        if (future != null) future.completeExceptionally(exception);
+    }
+
+    /**
+     * Cancels every pending request.
+     */
+    public void cancelAll() {
+        pending.values().forEach(future -> future.cancel(false));
+    }
+
+    /**
+     * @return how many requests are pending
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Responses may come from another resource of the recipient, so only the bare JID is compared.
+     */
+    private static final class Key {
+        private final PartyType type;
+        private final String partyId, user;
+
+        private Key(final PartyType type, final String partyId, final Jid recipient) {
+            this.type = type;
+            this.partyId = partyId;
+            this.user = recipient.asBareJid().toString();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            final var key = (Key) other;
+            return type == key.type && partyId.equals(key.partyId) && user.equals(key.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return (type.hashCode() * 31 + partyId.hashCode()) * 31 + user.hashCode();
+        }
+    }
+
+}
@@ -12,7 +12,7 @@ import javax.json.Json;
  */
 public final class PartyJoinAcknowledged implements PartyRequest {
 
-    private final String payload;
+    private final String payload, partyId;
 
     /**
      * Initialize the request.
@@ -20,14 +20,36 @@ public final class PartyJoinAcknowledged implements PartyRequest {
      * @param party the party
      */
     public PartyJoinAcknowledged(final Party party) {
+        this(party.partyId());
+    }
+
+    /**
+     * Initialize the request.
+     *
+     * @param partyId the ID of the party
+     */
+    public PartyJoinAcknowledged(final String partyId) {
+        this.partyId = partyId;
         final var type = PartyType.PARTY_JOIN_ACKNOWLEDGED;
         this.payload = RequestBuilder.buildRequest(
                 Json.createObjectBuilder()
-                        .add("partyId", party.partyId()).build(), type).toString();
+                        .add("partyId", partyId).build(), type).toString();
+    }
+
+    /**
+     * @return the ID of the party this request is for.
+     */
+    public String partyId() {
+        return partyId;
     }
 
     @Override
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_JOIN_ACKNOWLEDGED;
+    }
 }
@@ -24,4 +24,9 @@ public final class PartyJoinAcknowledgedResponse implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_JOIN_ACKNOWLEDGED_RESPONSE;
+    }
 }
@@ -13,7 +13,7 @@ import javax.json.Json;
  */
 public final class PartyJoinRequest implements PartyRequest {
 
-    private final String payload;
+    private final String payload, partyId;
 
     /**
      * Initialize
@@ -23,6 +23,7 @@ public final class PartyJoinRequest implements PartyRequest {
      * @param crossplayPreference the preference of crossplay {@code 1} to opt in.
      */
     public PartyJoinRequest(final Party party, final String displayName, final int crossplayPreference) {
+        this.partyId = party.partyId();
         this.payload = RequestBuilder.buildRequest(
                 Json.createObjectBuilder()
                         .add("partyId", party.partyId())
@@ -46,6 +47,7 @@ public final class PartyJoinRequest implements PartyRequest {
      * @param crossplayPreference the preference of crossplay {@code 1} to opt in.
      */
     public PartyJoinRequest(final String partyId, final String accessKey, final String displayName, final int crossplayPreference) {
+        this.partyId = partyId;
         this.payload = RequestBuilder.buildRequest(
                 Json.createObjectBuilder()
                         .add("partyId", partyId)
@@ -59,8 +61,20 @@ public final class PartyJoinRequest implements PartyRequest {
                                         .add("CrossplayPreference_i", crossplayPreference).build()).build()).build(), PartyType.PARTY_JOIN_REQUEST).toString();
     }
 
+    /**
+     * @return the ID of the party this request is for.
+     */
+    public String partyId() {
+        return partyId;
+    }
+
     @Override
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_JOIN_REQUEST;
+    }
 }
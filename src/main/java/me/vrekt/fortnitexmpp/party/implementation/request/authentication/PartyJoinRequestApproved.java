@@ -59,4 +59,9 @@ public final class PartyJoinRequestApproved implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_JOIN_REQUEST_APPROVED;
+    }
 }
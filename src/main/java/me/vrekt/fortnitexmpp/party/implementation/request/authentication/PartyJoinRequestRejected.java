@@ -29,4 +29,9 @@ public final class PartyJoinRequestRejected implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_JOIN_REQUEST_REJECTED;
+    }
 }
@@ -10,7 +10,7 @@ import javax.json.Json;
 
 public final class PartyQueryJoinability implements PartyRequest {
 
-    private final String payload;
+    private final String payload, partyId;
 
     /**
      * Initialize this request
@@ -20,6 +20,7 @@ public final class PartyQueryJoinability implements PartyRequest {
      * @param crossplayPreference the crossplay preference, 1 == OptedIn, 0 = ?? 2 = ??
      */
     public PartyQueryJoinability(final String partyId, final String accessKey, final int crossplayPreference) {
+        this.partyId = partyId;
         final var payload = Json.createObjectBuilder()
                 .add("partyId", partyId)
                 .add("accessKey", accessKey)
@@ -42,8 +43,20 @@ public final class PartyQueryJoinability implements PartyRequest {
         this(party.partyId(), party.accessKey(), crossplayPreference);
     }
 
+    /**
+     * @return the ID of the party this request is for.
+     */
+    public String partyId() {
+        return partyId;
+    }
+
     @Override
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_QUERY_JOINABILITY;
+    }
 }
@@ -29,4 +29,9 @@ public final class PartyQueryJoinabilityResponse implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_QUERY_JOINABILITY_RESPONSE;
+    }
 }
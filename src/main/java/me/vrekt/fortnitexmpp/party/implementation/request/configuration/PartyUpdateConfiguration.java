@@ -35,4 +35,9 @@ public final class PartyUpdateConfiguration implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_CONFIGURATION;
+    }
 }
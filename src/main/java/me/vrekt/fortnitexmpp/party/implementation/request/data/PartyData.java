@@ -238,4 +238,9 @@ public final class PartyData implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_DATA;
+    }
 }
@@ -86,6 +86,11 @@ public final class PartyEmote implements PartyRequest {
         return payload;
     }
 
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_MEMBER_DATA;
+    }
+
     /**
      * Stage of the emote or dance.
      * Stopping an emoji isn't required but for a dance it is.
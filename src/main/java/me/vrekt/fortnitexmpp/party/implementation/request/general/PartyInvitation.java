@@ -10,7 +10,7 @@ import javax.json.Json;
 
 public final class PartyInvitation implements PartyRequest {
 
-    private final String payload;
+    private final String payload, partyId;
 
     /**
      * Initialize this request
@@ -20,6 +20,7 @@ public final class PartyInvitation implements PartyRequest {
      * @param yourDisplayName the display name of the connected account
      */
     public PartyInvitation(final String partyId, final String accessKey, final String yourDisplayName) {
+        this.partyId = partyId;
         final var payload = Json.createObjectBuilder()
                 .add("partyId", partyId)
                 .add("partyTypeId", Party.TYPE_ID)
@@ -40,8 +41,20 @@ public final class PartyInvitation implements PartyRequest {
         this(party.partyId(), party.accessKey(), yourDisplayName);
     }
 
+    /**
+     * @return the ID of the party this request is for.
+     */
+    public String partyId() {
+        return partyId;
+    }
+
     @Override
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_INVITATION;
+    }
 }
@@ -29,6 +29,11 @@ public final class PartyInvitationResponse implements PartyRequest {
         return payload;
     }
 
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_INVITATION_RESPONSE;
+    }
+
     public enum Response {
         ACCEPTED(1), REJECTED(2), UNKNOWN(3);
 
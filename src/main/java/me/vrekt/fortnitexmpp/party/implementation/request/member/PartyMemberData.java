@@ -313,4 +313,9 @@ public final class PartyMemberData implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_MEMBER_DATA;
+    }
 }
@@ -22,4 +22,9 @@ public final class PartyMemberExited implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_MEMBER_EXITED;
+    }
 }
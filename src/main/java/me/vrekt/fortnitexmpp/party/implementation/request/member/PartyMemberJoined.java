@@ -45,4 +45,9 @@ public final class PartyMemberJoined implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_MEMBER_JOINED;
+    }
 }
@@ -43,4 +43,9 @@ public final class PartyMemberPromoted implements PartyRequest {
     public String payload() {
         return payload;
     }
+
+    @Override
+    public PartyType type() {
+        return PartyType.PARTY_MEMBER_PROMOTED;
+    }
 }
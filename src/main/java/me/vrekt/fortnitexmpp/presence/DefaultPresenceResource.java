@@ -2,26 +2,59 @@ package me.vrekt.fortnitexmpp.presence;
 
 import com.google.common.flogger.FluentLogger;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.dispatch.ListenerList;
+import me.vrekt.fortnitexmpp.jfr.StanzaDispatchedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaParsedEvent;
+import me.vrekt.fortnitexmpp.jfr.StanzaReceivedEvent;
+import me.vrekt.fortnitexmpp.metrics.MetricsRegistry;
+import me.vrekt.fortnitexmpp.presence.cache.PresenceCache;
+import me.vrekt.fortnitexmpp.presence.history.PresenceHistory;
 import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
 import me.vrekt.fortnitexmpp.presence.implementation.listener.FortnitePresenceHandler;
 import me.vrekt.fortnitexmpp.presence.implementation.listener.FortnitePresenceListener;
+import me.vrekt.fortnitexmpp.presence.index.PresenceIndex;
+import me.vrekt.fortnitexmpp.presence.joinable.JoinablePartyIndex;
+import me.vrekt.fortnitexmpp.presence.session.MatchSessionTracker;
+import me.vrekt.fortnitexmpp.presence.store.CompactPresenceStore;
+import me.vrekt.fortnitexmpp.presence.store.DefaultPresenceStore;
 import org.jivesoftware.smack.SmackException;
 import org.jivesoftware.smack.StanzaListener;
 import org.jivesoftware.smack.filter.StanzaTypeFilter;
 import org.jivesoftware.smack.packet.Presence;
 import org.jivesoftware.smack.packet.Stanza;
+import org.jivesoftware.smack.roster.AbstractRosterListener;
 import org.jivesoftware.smack.roster.Roster;
+import org.jivesoftware.smack.roster.RosterEntry;
 import org.jivesoftware.smack.tcp.XMPPTCPConnection;
+import org.jxmpp.jid.Jid;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public final class DefaultPresenceResource implements PresenceResource {
     private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
 
-    private final List<FortnitePresenceListener> listeners = new CopyOnWriteArrayList<>();
+    private final ListenerList<FortnitePresenceListener> listeners;
     private final List<FortnitePresenceHandler> handlers = new CopyOnWriteArrayList<>();
+    // account ID -> handlers that declared it, checked before the predicate based handlers.
+    private final Map<String, CopyOnWriteArrayList<FortnitePresenceHandler>> routes = new ConcurrentHashMap<>();
+    // account ID -> resources that are available, a friend is only offline once none are left.
+    private final Map<String, Set<String>> resources = new ConcurrentHashMap<>();
     private final PresenceListener presenceListener = new PresenceListener();
+    private final RemovedFriendListener removedFriendListener = new RemovedFriendListener();
+    private final MetricsRegistry metrics;
+    private final String localAccountId;
+    private final PresenceCache cache;
+    private final PresenceIndex index;
+    private final PresenceHistory history;
+    private final MatchSessionTracker matchSessions;
+    private final JoinablePartyIndex joinableParties;
+    private final boolean leanPresence;
     private XMPPTCPConnection connection;
     private Roster roster;
 
@@ -36,7 +69,21 @@ public final class DefaultPresenceResource implements PresenceResource {
      */
     public DefaultPresenceResource(final FortniteXMPP fortniteXMPP) {
         this.connection = fortniteXMPP.connection();
+        this.metrics = fortniteXMPP.metrics();
+        this.localAccountId = fortniteXMPP.accountId();
+        this.leanPresence = fortniteXMPP.configuration().doLeanPresence();
+        this.index = new PresenceIndex(leanPresence ? new CompactPresenceStore() : new DefaultPresenceStore(),
+                fortniteXMPP.configuration().doIndexPresences());
+        this.history = new PresenceHistory(fortniteXMPP.configuration().getPresenceHistoryDepth());
+        this.joinableParties = new JoinablePartyIndex(fortniteXMPP.configuration().getJoinablePartyMaxSize(),
+                fortniteXMPP.configuration().getJoinablePartyTtl(), fortniteXMPP.configuration().getJoinablePartyTtlUnit(),
+                fortniteXMPP.configuration().doIndexJoinableParties());
+        final var sharedCache = fortniteXMPP.configuration().getSharedPresenceCache();
+        this.cache = sharedCache == null ? new PresenceCache(fortniteXMPP.configuration().getPresenceCacheCapacity()) : sharedCache;
+        this.listeners = new ListenerList<>(fortniteXMPP.listenerMonitor());
+        this.matchSessions = new MatchSessionTracker(fortniteXMPP.listenerMonitor());
         this.roster = Roster.getInstanceFor(connection);
+        roster.addRosterListener(removedFriendListener);
         connection.addAsyncStanzaListener(presenceListener, StanzaTypeFilter.PRESENCE);
         onlyHandleAvailablePresences = true;
     }
@@ -46,6 +93,11 @@ public final class DefaultPresenceResource implements PresenceResource {
         listeners.add(listener);
     }
 
+    @Override
+    public void addPresenceListener(final FortnitePresenceListener listener, final Bulkhead bulkhead) {
+        listeners.add(listener, bulkhead);
+    }
+
     @Override
     public void removePresenceListener(final FortnitePresenceListener listener) {
         listeners.remove(listener);
@@ -56,9 +108,22 @@ public final class DefaultPresenceResource implements PresenceResource {
         handlers.add(handler);
     }
 
+    @Override
+    public void addPresenceHandler(final FortnitePresenceHandler handler, final Collection<String> accountIds) {
+        accountIds.forEach(accountId -> routes.compute(accountId, (id, routed) -> {
+            final var list = routed == null ? new CopyOnWriteArrayList<FortnitePresenceHandler>() : routed;
+            list.addIfAbsent(handler);
+            return list;
+        }));
+    }
+
     @Override
     public void removePresenceHandler(final FortnitePresenceHandler handler) {
         handlers.remove(handler);
+        routes.keySet().forEach(accountId -> routes.computeIfPresent(accountId, (id, routed) -> {
+            routed.remove(handler);
+            return routed.isEmpty() ? null : routed;
+        }));
     }
 
     @Override
@@ -76,7 +141,17 @@ public final class DefaultPresenceResource implements PresenceResource {
 
     @Override
     public void handleAllRosterEntries() {
-        roster.getEntries().forEach(entry -> handlePresence(roster.getPresence(entry.getJid())));
+        if (leanPresence) {
+            // the roster does not keep presences in lean mode, use the latest ones instead.
+            index.all().forEach(this::dispatch);
+            return;
+        }
+        handleRosterEntries(roster.getEntries());
+    }
+
+    @Override
+    public void handleRosterEntries(final Collection<RosterEntry> entries) {
+        entries.forEach(entry -> handlePresence(roster.getPresence(entry.getJid())));
     }
 
     @Override
@@ -84,6 +159,26 @@ public final class DefaultPresenceResource implements PresenceResource {
         this.onlyHandleAvailablePresences = onlyHandleAvailablePresences;
     }
 
+    @Override
+    public PresenceIndex index() {
+        return index;
+    }
+
+    @Override
+    public PresenceHistory history() {
+        return history;
+    }
+
+    @Override
+    public MatchSessionTracker matchSessions() {
+        return matchSessions;
+    }
+
+    @Override
+    public JoinablePartyIndex joinableParties() {
+        return joinableParties;
+    }
+
     @Override
     public Roster roster() {
         return roster;
@@ -92,8 +187,15 @@ public final class DefaultPresenceResource implements PresenceResource {
     @Override
     public void close() {
         connection.removeAsyncStanzaListener(presenceListener);
+        roster.removeRosterListener(removedFriendListener);
         listeners.clear();
         handlers.clear();
+        routes.clear();
+        resources.clear();
+        index.clear();
+        history.clear();
+        matchSessions.dispose();
+        joinableParties.clear();
         connection = null;
         roster = null;
     }
@@ -101,11 +203,17 @@ public final class DefaultPresenceResource implements PresenceResource {
     @Override
     public void disposeConnection() {
         connection.removeAsyncStanzaListener(presenceListener);
+        roster.removeRosterListener(removedFriendListener);
+        resources.clear();
+        index.clear();
+        matchSessions.clear();
+        joinableParties.clear();
     }
 
     @Override
     public void reinitialize(final FortniteXMPP fortniteXMPP) {
         this.roster = Roster.getInstanceFor(fortniteXMPP.connection());
+        roster.addRosterListener(removedFriendListener);
         connection.addAsyncStanzaListener(presenceListener, StanzaTypeFilter.PRESENCE);
     }
 
@@ -121,17 +229,111 @@ public final class DefaultPresenceResource implements PresenceResource {
         if (localPart == null) return;
 
         final var accountId = localPart.asUnescapedString();
-        final var fortnitePresence = FortnitePresence.createNew(accountId, presence.getStatus(), presence.getFrom());
+        final var presenceMetrics = metrics.presence();
+        presenceMetrics.received(presence.getStatus().length());
+        StanzaReceivedEvent.arrived(presence.getStatus().length()).commit(localAccountId, "presence", null);
+
+        final var parseEvent = new StanzaParsedEvent();
+        parseEvent.begin();
+        final var parseStart = System.nanoTime();
+        final var fortnitePresence = FortnitePresence.createNew(accountId, presence.getFrom(), cache.get(presence.getStatus(), metrics.presenceCache()));
+        presenceMetrics.parsed(System.nanoTime() - parseStart);
+        parseEvent.commit(localAccountId, "presence", null);
         if (fortnitePresence != null) {
-            listeners.forEach(fortnitePresenceListener -> fortnitePresenceListener.presenceReceived(fortnitePresence));
+            index.update(fortnitePresence);
+            history.record(fortnitePresence);
+            matchSessions.update(fortnitePresence);
+            joinableParties.update(fortnitePresence);
+            final var dispatchEvent = new StanzaDispatchedEvent();
+            dispatchEvent.begin();
+            final var dispatchStart = System.nanoTime();
+            dispatch(fortnitePresence);
+            presenceMetrics.dispatched(System.nanoTime() - dispatchStart);
+            dispatchEvent.commit(localAccountId, "presence", null);
+        }
+    }
+
+    /**
+     * Passes the presence to the listeners and handlers.
+     *
+     * @param fortnitePresence the presence
+     */
+    private void dispatch(final FortnitePresence fortnitePresence) {
+        final var accountId = fortnitePresence.accountId();
+        listeners.forEach(fortnitePresenceListener -> fortnitePresenceListener.presenceReceived(fortnitePresence));
+        final var routed = routes.get(accountId);
+        if (routed != null) {
+            for (final var handler : routed) if (handler.isActive() && handler.isReady()) handler.handlePresence(fortnitePresence);
+        }
+        if (!handlers.isEmpty()) {
             handlers.stream().filter(handler -> handler.isActive() && handler.isReady() && handler.isRelevant(accountId)).forEach(handler -> handler.handlePresence(fortnitePresence));
         }
     }
 
+    /**
+     * Track the resource of the presence as available or unavailable.
+     *
+     * @param presence the presence
+     * @return {@code true} if the presence was unavailable and the account has no available resources left.
+     */
+    private boolean trackResource(final Presence presence) {
+        final var localPart = presence.getFrom().getLocalpartOrNull();
+        if (localPart == null) return false;
+
+        final var accountId = localPart.asUnescapedString();
+        final var resourcepart = presence.getFrom().getResourceOrEmpty().toString();
+        if (presence.isAvailable()) {
+            resources.compute(accountId, (id, available) -> {
+                final var set = available == null ? ConcurrentHashMap.<String>newKeySet() : available;
+                set.add(resourcepart);
+                return set;
+            });
+            return false;
+        }
+
+        final var remaining = resources.computeIfPresent(accountId, (id, available) -> {
+            available.remove(resourcepart);
+            return available.isEmpty() ? null : available;
+        });
+        return remaining == null;
+    }
+
+    /**
+     * Removes the account from everything that tracks available friends.
+     *
+     * @param accountId the account ID
+     */
+    private void unavailable(final String accountId) {
+        index.remove(accountId);
+        history.recordUnavailable(accountId);
+        matchSessions.end(accountId);
+        joinableParties.remove(accountId);
+    }
+
+    /**
+     * Forgets friends who are removed from the roster, including their history.
+     */
+    private final class RemovedFriendListener extends AbstractRosterListener {
+        @Override
+        public void entriesDeleted(Collection<Jid> addresses) {
+            addresses.forEach(address -> {
+                final var localPart = address.getLocalpartOrNull();
+                if (localPart == null) return;
+
+                final var accountId = localPart.asUnescapedString();
+                resources.remove(accountId);
+                unavailable(accountId);
+                history.remove(accountId);
+            });
+        }
+    }
+
     private final class PresenceListener implements StanzaListener {
         @Override
         public void processStanza(Stanza packet) {
             final var presence = (Presence) packet;
+            // another resource of the friend, for example the launcher, may still be online.
+            if (trackResource(presence)) unavailable(presence.getFrom().getLocalpartOrNull().asUnescapedString());
             if (onlyHandleAvailablePresences && !presence.isAvailable()) return;
             handlePresence(presence);
         }
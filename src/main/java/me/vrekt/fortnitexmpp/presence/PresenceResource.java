@@ -1,9 +1,17 @@
 package me.vrekt.fortnitexmpp.presence;
 
 import me.vrekt.fortnitexmpp.FortniteXMPP;
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.presence.history.PresenceHistory;
+import me.vrekt.fortnitexmpp.presence.index.PresenceIndex;
+import me.vrekt.fortnitexmpp.presence.joinable.JoinablePartyIndex;
+import me.vrekt.fortnitexmpp.presence.session.MatchSessionTracker;
 import me.vrekt.fortnitexmpp.presence.implementation.listener.FortnitePresenceHandler;
 import me.vrekt.fortnitexmpp.presence.implementation.listener.FortnitePresenceListener;
 import org.jivesoftware.smack.roster.Roster;
+import org.jivesoftware.smack.roster.RosterEntry;
+
+import java.util.Collection;
 
 public interface PresenceResource extends AutoCloseable {
 
@@ -14,6 +22,14 @@ public interface PresenceResource extends AutoCloseable {
      */
     void addPresenceListener(final FortnitePresenceListener listener);
 
+    /**
+     * Adds a presence listener that is invoked inside the provided {@code bulkhead} instead of on the connection thread.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    void addPresenceListener(final FortnitePresenceListener listener, final Bulkhead bulkhead);
+
     /**
      * Remove a presence listener
      *
@@ -28,6 +44,17 @@ public interface PresenceResource extends AutoCloseable {
      */
     void addPresenceHandler(final FortnitePresenceHandler handler);
 
+    /**
+     * Add a handler that only receives presences from the provided {@code accountIds}
+     * These handlers are found by account ID so {@link FortnitePresenceHandler#isRelevant(String)} is never called,
+     * {@link FortnitePresenceHandler#isActive()} and {@link FortnitePresenceHandler#isReady()} still are.
+     * Calling this again with the same handler adds more account IDs.
+     *
+     * @param handler    the handler
+     * @param accountIds the account IDs the handler is relevant for
+     */
+    void addPresenceHandler(final FortnitePresenceHandler handler, final Collection<String> accountIds);
+
     /**
      * Remove a handler for presences.
      *
@@ -47,11 +74,44 @@ public interface PresenceResource extends AutoCloseable {
      */
     void handleAllRosterEntries();
 
+    /**
+     * Invokes the listeners for the presence of each provided roster entry
+     *
+     * @param entries the roster entries
+     */
+    void handleRosterEntries(final Collection<RosterEntry> entries);
+
     /**
      * @param onlyHandleAvailablePresences {@code true} if only accounts who are available should be handled.
      */
     void setOnlyHandleAvailablePresences(boolean onlyHandleAvailablePresences);
 
+    /**
+     * Only updated if enabled with {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration#setIndexPresences(boolean)} or in lean mode.
+     *
+     * @return an index over the latest presence of every friend, updated as presences are received.
+     */
+    PresenceIndex index();
+
+    /**
+     * Only recorded if enabled with {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration#setPresenceHistoryDepth(int)}
+     *
+     * @return the recent presence transitions of every friend.
+     */
+    PresenceHistory history();
+
+    /**
+     * @return the tracker that turns presences into match session events, add a listener to it to start tracking.
+     */
+    MatchSessionTracker matchSessions();
+
+    /**
+     * Only updated if enabled with {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration#setIndexJoinableParties(boolean)}
+     *
+     * @return the parties of friends that can currently be joined, updated as presences are received.
+     */
+    JoinablePartyIndex joinableParties();
+
     /**
      * @return the roster
      */
@@ -0,0 +1,75 @@
+package me.vrekt.fortnitexmpp.presence.cache;
+
+import me.vrekt.fortnitexmpp.metrics.implementation.CacheMetrics;
+import me.vrekt.fortnitexmpp.presence.implementation.PresenceData;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded cache of parsed presence statuses.
+ * Friends rebroadcast the same status often, a hit skips parsing the status entirely.
+ * <p>
+ * The cache is direct mapped: the hash of the status picks a single slot, and a newer status with the same slot replaces the older one.
+ * Lookups and inserts are lock-free and never allocate beyond the parsed data itself.
+ * <p>
+ * The parsed data does not depend on the account that received the status,
+ * so one cache can be shared between many accounts, see {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration#setSharedPresenceCache(PresenceCache)}
+ */
+public final class PresenceCache {
+
+    private final AtomicReferenceArray<PresenceData> entries;
+    private final int mask;
+
+    /**
+     * Initialize this cache
+     *
+     * @param capacity how many statuses to keep, rounded up to a power of two. {@code 0} disables the cache.
+     */
+    public PresenceCache(final int capacity) {
+        final var size = capacity <= 0 ? 0 : Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Get the parsed {@code status} from the cache, parsing and caching it if it is not present.
+     *
+     * @param status  the status
+     * @param metrics where the hit or miss is counted, this is the metrics of the account that received the status.
+     * @return the parsed status
+     */
+    public PresenceData get(final String status, final CacheMetrics metrics) {
+        if (mask < 0) {
+            metrics.miss();
+            return PresenceData.parse(status);
+        }
+
+        final var hash = status.hashCode();
+        final var index = (hash ^ (hash >>> 16)) & mask;
+        final var cached = entries.get(index);
+        if (cached != null && cached.status().equals(status)) {
+            metrics.hit();
+            return cached;
+        }
+
+        metrics.miss();
+        final var parsed = PresenceData.parse(status);
+        entries.set(index, parsed);
+        return parsed;
+    }
+
+    /**
+     * @return how many statuses this cache can hold.
+     */
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * Removes every cached status.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) entries.set(i, null);
+    }
+
+}
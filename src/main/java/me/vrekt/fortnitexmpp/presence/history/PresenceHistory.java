@@ -0,0 +1,322 @@
+package me.vrekt.fortnitexmpp.presence.history;
+
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the recent presence transitions of every friend in a ring buffer.
+ * A transition is recorded when a friend starts or stops playing, changes session or party, goes offline, or when their players remaining changes.
+ * <p>
+ * Every friend uses a fixed amount of memory: three {@code long}s per transition.
+ * Session and party IDs are kept as 64 bit fingerprints, so they can be compared but not read back.
+ */
+public final class PresenceHistory {
+
+    // the time is kept in the lower 48 bits of the first word, the state in the upper 16.
+    private static final long TIME_MASK = (1L << 48) - 1;
+    private static final int PLAYERS_SHIFT = 48, PLAYING = 1 << 8, IN_SESSION = 1 << 9, IN_PARTY = 1 << 10, OFFLINE = 1 << 11;
+
+    private final int depth;
+    private final Map<String, Ring> friends = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize this history
+     *
+     * @param depth how many transitions to keep per friend, {@code 0} disables the history.
+     */
+    public PresenceHistory(final int depth) {
+        this.depth = Math.max(0, depth);
+    }
+
+    /**
+     * Record the presence if it differs from the last recorded one of its account.
+     *
+     * @param presence the presence
+     */
+    public void record(final FortnitePresence presence) {
+        if (depth == 0) return;
+        final var session = presence.sessionId().orElse(null);
+        final var party = presence.partyId().orElse(null);
+        var state = Math.min(Math.max(presence.playersRemaining(), 0), 0xFF);
+        if (presence.isPlaying()) state |= PLAYING;
+        if (session != null) state |= IN_SESSION;
+        if (party != null) state |= IN_PARTY;
+
+        friends.computeIfAbsent(presence.accountId(), accountId -> new Ring(depth))
+                .append(System.currentTimeMillis(), state, fingerprint(session), fingerprint(party));
+    }
+
+    /**
+     * Record that the account went offline, which ends their session and party.
+     *
+     * @param accountId the account ID
+     */
+    public void recordUnavailable(final String accountId) {
+        final var ring = friends.get(accountId);
+        if (ring != null) ring.append(System.currentTimeMillis(), OFFLINE, 0, 0);
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the time the account went offline in milliseconds since the epoch, the current time if they are online
+     * or {@code -1} if nothing was recorded for them.
+     */
+    public long lastSeenOnline(final String accountId) {
+        final var ring = friends.get(accountId);
+        return ring == null ? -1 : ring.lastSeenOnline();
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the time the account was last seen playing in milliseconds since the epoch, the current time if they are playing
+     * or {@code -1} if they were not seen playing within the kept transitions.
+     */
+    public long lastSeenPlaying(final String accountId) {
+        final var ring = friends.get(accountId);
+        return ring == null ? -1 : ring.lastSeenPlaying();
+    }
+
+    /**
+     * If the session started before the oldest kept transition the time since that transition is returned.
+     *
+     * @param accountId the account ID
+     * @return how many milliseconds the account has been in its current session, or {@code -1} if they are not in a session.
+     */
+    public long timeInCurrentSession(final String accountId) {
+        final var ring = friends.get(accountId);
+        return ring == null ? -1 : ring.timeInCurrent(IN_SESSION, 1);
+    }
+
+    /**
+     * If the party was joined before the oldest kept transition the time since that transition is returned.
+     *
+     * @param accountId the account ID
+     * @return how many milliseconds the account has been in its current party, or {@code -1} if they are not in a party.
+     */
+    public long timeInCurrentParty(final String accountId) {
+        final var ring = friends.get(accountId);
+        return ring == null ? -1 : ring.timeInCurrent(IN_PARTY, 2);
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the kept transitions of the account, oldest first.
+     */
+    public List<Transition> transitions(final String accountId) {
+        final var ring = friends.get(accountId);
+        return ring == null ? Collections.emptyList() : ring.transitions();
+    }
+
+    /**
+     * Remove the history of the provided account.
+     *
+     * @param accountId the account ID
+     */
+    public void remove(final String accountId) {
+        friends.remove(accountId);
+    }
+
+    /**
+     * Removes every history.
+     */
+    public void clear() {
+        friends.clear();
+    }
+
+    /**
+     * @return {@code true} if transitions are recorded.
+     */
+    public boolean isEnabled() {
+        return depth > 0;
+    }
+
+    /**
+     * @return how many friends have a history
+     */
+    public int size() {
+        return friends.size();
+    }
+
+    /**
+     * FNV-1a, {@code 0} is reserved for no ID.
+     */
+    private static long fingerprint(final String id) {
+        if (id == null) return 0;
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * The transitions of one friend, every transition is three words: the time and state, the session and the party.
+     */
+    private static final class Ring {
+
+        private final long[] words;
+        private final int depth;
+        private int next, count;
+
+        private Ring(final int depth) {
+            this.depth = depth;
+            this.words = new long[depth * 3];
+        }
+
+        private synchronized void append(final long time, final int state, final long session, final long party) {
+            if (count > 0) {
+                final var last = (next + depth - 1) % depth * 3;
+                if (state(last) == state && words[last + 1] == session && words[last + 2] == party) return;
+            }
+
+            final var offset = next * 3;
+            words[offset] = (long) state << PLAYERS_SHIFT | (time & TIME_MASK);
+            words[offset + 1] = session;
+            words[offset + 2] = party;
+            next = (next + 1) % depth;
+            if (count < depth) count++;
+        }
+
+        private synchronized long lastSeenPlaying() {
+            for (int i = count - 1; i >= 0; i--) {
+                if ((state(offset(i)) & PLAYING) == 0) continue;
+                return i == count - 1 ? System.currentTimeMillis() : time(offset(i + 1));
+            }
+            return -1;
+        }
+
+        private synchronized long lastSeenOnline() {
+            if (count == 0) return -1;
+            final var latest = offset(count - 1);
+            return (state(latest) & OFFLINE) == 0 ? System.currentTimeMillis() : time(latest);
+        }
+
+        private synchronized long timeInCurrent(final int flag, final int word) {
+            if (count == 0) return -1;
+            final var latest = offset(count - 1);
+            if ((state(latest) & flag) == 0) return -1;
+
+            var since = time(latest);
+            for (int i = count - 2; i >= 0; i--) {
+                final var offset = offset(i);
+                if (words[offset + word] != words[latest + word]) break;
+                since = time(offset);
+            }
+            return System.currentTimeMillis() - since;
+        }
+
+        private synchronized List<Transition> transitions() {
+            final var transitions = new ArrayList<Transition>(count);
+            for (int i = 0; i < count; i++) {
+                final var offset = offset(i);
+                final var previous = i == 0 ? -1 : offset(i - 1);
+                final var state = state(offset);
+                transitions.add(new Transition(time(offset), (state & OFFLINE) == 0, (state & PLAYING) != 0, (state & IN_SESSION) != 0, (state & IN_PARTY) != 0,
+                        state & 0xFF, previous != -1 && words[previous + 1] != words[offset + 1], previous != -1 && words[previous + 2] != words[offset + 2]));
+            }
+            return transitions;
+        }
+
+        /**
+         * @return the offset of the {@code i}th kept transition, oldest first.
+         */
+        private int offset(final int i) {
+            return (next - count + i + depth) % depth * 3;
+        }
+
+        private int state(final int offset) {
+            return (int) (words[offset] >>> PLAYERS_SHIFT);
+        }
+
+        private long time(final int offset) {
+            return words[offset] & TIME_MASK;
+        }
+
+    }
+
+    /**
+     * A single recorded transition.
+     */
+    public static final class Transition {
+
+        private final long time;
+        private final boolean online, playing, inSession, inParty, sessionChanged, partyChanged;
+        private final int playersRemaining;
+
+        private Transition(final long time, final boolean online, final boolean playing, final boolean inSession, final boolean inParty,
+                           final int playersRemaining, final boolean sessionChanged, final boolean partyChanged) {
+            this.time = time;
+            this.online = online;
+            this.playing = playing;
+            this.inSession = inSession;
+            this.inParty = inParty;
+            this.playersRemaining = playersRemaining;
+            this.sessionChanged = sessionChanged;
+            this.partyChanged = partyChanged;
+        }
+
+        /**
+         * @return when this transition was recorded in milliseconds since the epoch.
+         */
+        public long time() {
+            return time;
+        }
+
+        /**
+         * @return {@code false} if the friend went offline, which also ends their session and party.
+         */
+        public boolean isOnline() {
+            return online;
+        }
+
+        /**
+         * @return {@code true} if the friend was playing
+         */
+        public boolean isPlaying() {
+            return playing;
+        }
+
+        /**
+         * @return {@code true} if the friend was in a session
+         */
+        public boolean inSession() {
+            return inSession;
+        }
+
+        /**
+         * @return {@code true} if the friend was in a party
+         */
+        public boolean inParty() {
+            return inParty;
+        }
+
+        /**
+         * @return the players remaining, capped at 255.
+         */
+        public int playersRemaining() {
+            return playersRemaining;
+        }
+
+        /**
+         * @return {@code true} if the session differs from the previous transition.
+         */
+        public boolean sessionChanged() {
+            return sessionChanged;
+        }
+
+        /**
+         * @return {@code true} if the party differs from the previous transition.
+         */
+        public boolean partyChanged() {
+            return partyChanged;
+        }
+
+    }
+
+}
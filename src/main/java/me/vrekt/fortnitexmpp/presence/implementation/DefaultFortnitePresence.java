@@ -1,52 +1,26 @@
 package me.vrekt.fortnitexmpp.presence.implementation;
 
-import me.vrekt.fortnitexmpp.party.implementation.Party;
-import me.vrekt.fortnitexmpp.utility.JsonUtility;
 import org.jxmpp.jid.Jid;
 
-import javax.json.Json;
-import java.io.StringReader;
 import java.util.Optional;
 
 public final class DefaultFortnitePresence implements FortnitePresence {
 
-    private String accountId, sessionId, status, partyId, partyKey;
-    private int playersRemaining, partySize;
-    private boolean isPlaying, isValid;
+    private final String accountId;
     private final Jid from;
+    private final PresenceData data;
 
     /**
      * Initialize this presence
      *
      * @param accountId the ID of the account who sent it
-     * @param status    the status
      * @param from      who it was sent from
+     * @param data      the fields parsed from the status
      */
-    DefaultFortnitePresence(final String accountId, final String status, final Jid from) {
+    DefaultFortnitePresence(final String accountId, final Jid from, final PresenceData data) {
         this.accountId = accountId;
-        this.status = status;
         this.from = from;
-
-        try {
-            final var reader = Json.createReader(new StringReader(status));
-            final var object = reader.readObject();
-            reader.close();
-
-            JsonUtility.getBoolean("bIsPlaying", object).ifPresent(isPlaying -> this.isPlaying = isPlaying);
-            JsonUtility.getString("SessionId", object).ifPresent(sessionId -> this.sessionId = sessionId.isEmpty() ? null : sessionId);
-            JsonUtility.getObject("Properties", object).ifPresent(properties -> {
-                JsonUtility.getInt("ServerPlayerCount_i", properties).ifPresent(playersRemaining -> this.playersRemaining = playersRemaining);
-                JsonUtility.getInt("FortPartySize_i", properties).ifPresent(partySize -> this.partySize = partySize);
-                JsonUtility.getObject(Party.PARTY_DATA_INFO, properties).ifPresent(party -> {
-                    JsonUtility.getString("partyId", party).ifPresent(partyId -> this.partyId = partyId);
-                    JsonUtility.getString("key", party).ifPresent(partyKey -> this.partyKey = partyKey);
-                });
-            });
-
-        } catch (final Exception exception) {
-            isValid = false;
-        }
-
+        this.data = data;
     }
 
     @Override
@@ -56,37 +30,37 @@ public final class DefaultFortnitePresence implements FortnitePresence {
 
     @Override
     public Optional<String> sessionId() {
-        return Optional.ofNullable(sessionId);
+        return Optional.ofNullable(data.sessionId());
     }
 
     @Override
     public Optional<String> partyId() {
-        return Optional.ofNullable(partyId);
+        return Optional.ofNullable(data.partyId());
     }
 
     @Override
     public Optional<String> accessKey() {
-        return Optional.ofNullable(partyKey);
+        return Optional.ofNullable(data.partyKey());
     }
 
     @Override
     public String status() {
-        return status;
+        return data.status();
     }
 
     @Override
     public int playersRemaining() {
-        return playersRemaining;
+        return data.playersRemaining();
     }
 
     @Override
     public int partySize() {
-        return partySize;
+        return data.partySize();
     }
 
     @Override
     public boolean isPlaying() {
-        return isPlaying;
+        return data.isPlaying();
     }
 
     @Override
@@ -96,6 +70,6 @@ public final class DefaultFortnitePresence implements FortnitePresence {
 
     @Override
     public boolean isValid() {
-        return isValid;
+        return data.isValid();
     }
 }
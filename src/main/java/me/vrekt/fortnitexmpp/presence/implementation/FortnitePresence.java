@@ -20,7 +20,20 @@ public interface FortnitePresence {
      */
     static FortnitePresence createNew(final String accountId, final String status, final Jid from) {
         if (status == null || accountId == null || from == null) return null;
-        return new DefaultFortnitePresence(accountId, status, from);
+        return new DefaultFortnitePresence(accountId, from, PresenceData.parse(status));
+    }
+
+    /**
+     * Create a new {@link FortnitePresence} from already parsed {@code data}, usually from a {@link me.vrekt.fortnitexmpp.presence.cache.PresenceCache}
+     *
+     * @param accountId the account ID of whoever sent this presence.
+     * @param from      who it was sent from
+     * @param data      the parsed status
+     * @return a new {@link FortnitePresence} or {@code null} if any argument is null
+     */
+    static FortnitePresence createNew(final String accountId, final Jid from, final PresenceData data) {
+        if (data == null || accountId == null || from == null) return null;
+        return new DefaultFortnitePresence(accountId, from, data);
     }
 
     /**
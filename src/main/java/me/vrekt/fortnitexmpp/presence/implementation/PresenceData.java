@@ -0,0 +1,165 @@
+package me.vrekt.fortnitexmpp.presence.implementation;
+
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import java.io.StringReader;
+
+/**
+ * The fields parsed from a presence status.
+ * This does not depend on who sent the status so one instance is shared by every presence with the same status.
+ * <p>
+ * Nothing is parsed until a field is first read, so a presence nobody inspects only costs the raw status.
+ * Fields are then pulled from the status with a streaming parser in a single pass, no JSON tree is built.
+ */
+public final class PresenceData {
+
+    private final String status;
+    private volatile Fields fields;
+
+    /**
+     * Create new data for the provided {@code status}, the status is parsed on first access.
+     *
+     * @param status the status
+     * @return a new {@link PresenceData}
+     */
+    public static PresenceData parse(final String status) {
+        return new PresenceData(status);
+    }
+
+    private PresenceData(final String status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the decoded fields, decoding them if this is the first access.
+     */
+    private Fields fields() {
+        var fields = this.fields;
+        // decoding twice on a race is harmless, both threads produce the same fields.
+        if (fields == null) this.fields = fields = Fields.decode(status);
+        return fields;
+    }
+
+    /**
+     * @return the status these fields were parsed from.
+     */
+    public String status() {
+        return status;
+    }
+
+    /**
+     * @return the session ID or {@code null}
+     */
+    public String sessionId() {
+        return fields().sessionId;
+    }
+
+    /**
+     * @return the party ID or {@code null}
+     */
+    public String partyId() {
+        return fields().partyId;
+    }
+
+    /**
+     * @return the party access key or {@code null}
+     */
+    public String partyKey() {
+        return fields().partyKey;
+    }
+
+    public int playersRemaining() {
+        return fields().playersRemaining;
+    }
+
+    public int partySize() {
+        return fields().partySize;
+    }
+
+    public boolean isPlaying() {
+        return fields().isPlaying;
+    }
+
+    public boolean isValid() {
+        return fields().isValid;
+    }
+
+    /**
+     * The decoded fields of a status.
+     */
+    private static final class Fields {
+        private String sessionId, partyId, partyKey;
+        private int playersRemaining, partySize;
+        private boolean isPlaying, isValid;
+
+        /**
+         * Decodes the fields from the status.
+         * The fields read are {@code bIsPlaying}, {@code SessionId} and from {@code Properties}:
+         * {@code ServerPlayerCount_i}, {@code FortPartySize_i} and the {@code partyId} and {@code key} of {@link Party#PARTY_DATA_INFO}
+         *
+         * @param status the status
+         * @return the fields, invalid if the status is not valid JSON.
+         */
+        private static Fields decode(final String status) {
+            final var fields = new Fields();
+            try (final var parser = Json.createParser(new StringReader(status))) {
+                String key = null;
+                int depth = 0, propertiesDepth = -1, partyDepth = -1;
+
+                while (parser.hasNext()) {
+                    final var event = parser.next();
+                    switch (event) {
+                        case START_OBJECT:
+                            depth++;
+                            if (depth == 2 && "Properties".equals(key)) propertiesDepth = depth;
+                            if (depth == propertiesDepth + 1 && Party.PARTY_DATA_INFO.equals(key)) partyDepth = depth;
+                            key = null;
+                            break;
+                        case START_ARRAY:
+                            depth++;
+                            key = null;
+                            break;
+                        case END_OBJECT:
+                        case END_ARRAY:
+                            if (depth == partyDepth) partyDepth = -1;
+                            if (depth == propertiesDepth) propertiesDepth = -1;
+                            depth--;
+                            key = null;
+                            break;
+                        case KEY_NAME:
+                            key = parser.getString();
+                            break;
+                        default:
+                            if (key != null) fields.read(parser, event, key, depth == 1, depth == propertiesDepth, depth == partyDepth);
+                            key = null;
+                            break;
+                    }
+                }
+                fields.isValid = true;
+            } catch (final Exception exception) {
+                fields.isValid = false;
+            }
+            return fields;
+        }
+
+        private void read(final JsonParser parser, final JsonParser.Event event, final String key,
+                          final boolean inRoot, final boolean inProperties, final boolean inParty) {
+            if (inRoot) {
+                if (key.equals("bIsPlaying")) isPlaying = event == JsonParser.Event.VALUE_TRUE;
+                if (key.equals("SessionId") && event == JsonParser.Event.VALUE_STRING) {
+                    final var sessionId = parser.getString();
+                    this.sessionId = sessionId.isEmpty() ? null : sessionId;
+                }
+            } else if (inProperties && event == JsonParser.Event.VALUE_NUMBER) {
+                if (key.equals("ServerPlayerCount_i")) playersRemaining = parser.getInt();
+                if (key.equals("FortPartySize_i")) partySize = parser.getInt();
+            } else if (inParty && event == JsonParser.Event.VALUE_STRING) {
+                if (key.equals("partyId")) partyId = parser.getString();
+                if (key.equals("key")) partyKey = parser.getString();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package me.vrekt.fortnitexmpp.presence.index;
+
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+import me.vrekt.fortnitexmpp.presence.store.PresenceStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the latest {@link FortnitePresence} of every friend along with indexes over the commonly queried fields.
+ * Every query is answered from an index so it costs O(result), the returned lists are snapshots.
+ * A presence updated while a query runs may or may not be part of the result.
+ * <p>
+ * A disabled index ignores updates and answers every query with nothing.
+ */
+public final class PresenceIndex {
+
+    /**
+     * Party sizes at or above this share the last bucket.
+     */
+    private static final int MAX_PARTY_SIZE = 16;
+
+    private final PresenceStore latest;
+    private final boolean enabled;
+    // serializes updates of the same account so the indexes always match the stored presence.
+    private final Object[] locks = new Object[64];
+    private final Map<String, Set<String>> byParty = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> bySession = new ConcurrentHashMap<>();
+    private final Set<String> playing = ConcurrentHashMap.newKeySet();
+    private final List<Set<String>> byPartySize = new ArrayList<>(MAX_PARTY_SIZE + 1);
+
+    /**
+     * Initialize this index
+     *
+     * @param store   where the latest presences are kept
+     * @param enabled {@code false} to ignore updates
+     */
+    public PresenceIndex(final PresenceStore store, final boolean enabled) {
+        this.latest = store;
+        this.enabled = enabled;
+        for (int i = 0; i <= MAX_PARTY_SIZE; i++) byPartySize.add(ConcurrentHashMap.newKeySet());
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    /**
+     * Replace the presence of its account.
+     *
+     * @param presence the presence
+     */
+    public void update(final FortnitePresence presence) {
+        if (!enabled) return;
+        synchronized (lockFor(presence.accountId())) {
+            final var previous = latest.put(presence);
+            if (previous != null) unindex(previous);
+            index(presence);
+        }
+    }
+
+    /**
+     * Remove the presence of the provided account, for example when they go offline.
+     *
+     * @param accountId the account ID
+     */
+    public void remove(final String accountId) {
+        synchronized (lockFor(accountId)) {
+            final var previous = latest.remove(accountId);
+            if (previous != null) unindex(previous);
+        }
+    }
+
+    /**
+     * Removes every presence.
+     */
+    public void clear() {
+        final var accountIds = new ArrayList<String>(latest.size());
+        latest.forEach(presence -> accountIds.add(presence.accountId()));
+        accountIds.forEach(this::remove);
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the latest presence of the account or {@code null} if none was received.
+     */
+    public FortnitePresence get(final String accountId) {
+        return latest.get(accountId);
+    }
+
+    /**
+     * @return the latest presence of every account.
+     */
+    public List<FortnitePresence> all() {
+        final var result = new ArrayList<FortnitePresence>(latest.size());
+        latest.forEach(result::add);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @param partyId the ID of the party
+     * @return every account in the party
+     */
+    public List<FortnitePresence> inParty(final String partyId) {
+        return snapshot(byParty.getOrDefault(partyId, Collections.emptySet()));
+    }
+
+    /**
+     * @param sessionId the session ID
+     * @return every account in the session
+     */
+    public List<FortnitePresence> inSession(final String sessionId) {
+        return snapshot(bySession.getOrDefault(sessionId, Collections.emptySet()));
+    }
+
+    /**
+     * @return every account currently playing.
+     */
+    public List<FortnitePresence> playing() {
+        return snapshot(playing);
+    }
+
+    /**
+     * @param size the party size
+     * @return every account whose party size is below {@code size}
+     */
+    public List<FortnitePresence> withPartySizeBelow(final int size) {
+        final var result = new ArrayList<FortnitePresence>();
+        final var upper = Math.min(size, MAX_PARTY_SIZE + 1);
+        for (int i = 0; i < upper; i++) collect(byPartySize.get(i), result);
+        // the last bucket also holds larger sizes, filter those.
+        if (size > MAX_PARTY_SIZE) result.removeIf(presence -> presence.partySize() >= size);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return {@code true} if presences are indexed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return how many accounts have a presence.
+     */
+    public int size() {
+        return latest.size();
+    }
+
+    private void index(final FortnitePresence presence) {
+        final var accountId = presence.accountId();
+        presence.partyId().ifPresent(partyId -> addTo(byParty, partyId, accountId));
+        presence.sessionId().ifPresent(sessionId -> addTo(bySession, sessionId, accountId));
+        if (presence.isPlaying()) playing.add(accountId);
+        byPartySize.get(bucket(presence.partySize())).add(accountId);
+    }
+
+    private void unindex(final FortnitePresence presence) {
+        final var accountId = presence.accountId();
+        presence.partyId().ifPresent(partyId -> removeFrom(byParty, partyId, accountId));
+        presence.sessionId().ifPresent(sessionId -> removeFrom(bySession, sessionId, accountId));
+        playing.remove(accountId);
+        byPartySize.get(bucket(presence.partySize())).remove(accountId);
+    }
+
+    private static void addTo(final Map<String, Set<String>> index, final String key, final String accountId) {
+        index.compute(key, (k, accounts) -> {
+            final var set = accounts == null ? ConcurrentHashMap.<String>newKeySet() : accounts;
+            set.add(accountId);
+            return set;
+        });
+    }
+
+    private static void removeFrom(final Map<String, Set<String>> index, final String key, final String accountId) {
+        index.computeIfPresent(key, (k, accounts) -> {
+            accounts.remove(accountId);
+            return accounts.isEmpty() ? null : accounts;
+        });
+    }
+
+    private Object lockFor(final String accountId) {
+        return locks[accountId.hashCode() & (locks.length - 1)];
+    }
+
+    private static int bucket(final int partySize) {
+        return Math.max(0, Math.min(partySize, MAX_PARTY_SIZE));
+    }
+
+    private List<FortnitePresence> snapshot(final Collection<String> accountIds) {
+        final var result = new ArrayList<FortnitePresence>(accountIds.size());
+        collect(accountIds, result);
+        return Collections.unmodifiableList(result);
+    }
+
+    private void collect(final Collection<String> accountIds, final List<FortnitePresence> result) {
+        for (final var accountId : accountIds) {
+            final var presence = latest.get(accountId);
+            if (presence != null) result.add(presence);
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+package me.vrekt.fortnitexmpp.presence.joinable;
+
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the parties of friends that can currently be joined, ordered by how many slots are free.
+ * A party is joinable when the presence of a friend has a party ID, an access key and the party is not full.
+ * Parties are keyed by their ID, so a party is kept once no matter how many friends are in it.
+ * It is kept until the last friend that showed it leaves, goes offline or a presence shows it is full.
+ * <p>
+ * Parties are kept in a bucket per amount of free slots, and within a bucket the least recently updated comes first.
+ * Parties not updated within the TTL are dropped when they reach the front of their bucket,
+ * so picking the party with the most free slots does not scan every presence.
+ * <p>
+ * A disabled index ignores updates and answers every query with nothing.
+ */
+public final class JoinablePartyIndex {
+
+    private final boolean enabled;
+    private final int maxPartySize;
+    private final long ttlMillis;
+    // party ID -> party and the accounts that showed it.
+    private final Map<String, Entry> byParty = new HashMap<>();
+    // account ID -> the party ID their latest presence showed.
+    private final Map<String, String> partyOf = new HashMap<>();
+    // free slots -> party ID -> party, least recently updated first.
+    private final List<LinkedHashMap<String, JoinableParty>> byFreeSlots;
+
+    /**
+     * Initialize this index
+     *
+     * @param maxPartySize the max amount of members in a party
+     * @param ttl          how long a party is considered joinable after the last presence that showed it.
+     * @param unit         the unit of {@code ttl}
+     * @param enabled      {@code false} to ignore updates
+     */
+    public JoinablePartyIndex(final int maxPartySize, final long ttl, final TimeUnit unit, final boolean enabled) {
+        this.enabled = enabled;
+        this.maxPartySize = Math.max(1, maxPartySize);
+        this.ttlMillis = unit.toMillis(ttl);
+        this.byFreeSlots = new ArrayList<>(this.maxPartySize + 1);
+        for (int i = 0; i <= this.maxPartySize; i++) byFreeSlots.add(new LinkedHashMap<>());
+    }
+
+    /**
+     * Add, refresh or remove the party of the presence's account.
+     *
+     * @param presence the presence
+     */
+    public void update(final FortnitePresence presence) {
+        // checked before the lock and before any field is decoded.
+        if (!enabled) return;
+        synchronized (this) {
+            updateParty(presence);
+        }
+    }
+
+    private void updateParty(final FortnitePresence presence) {
+        final var accountId = presence.accountId();
+        remove(accountId);
+        final var partyId = presence.partyId().orElse(null);
+        if (partyId == null || presence.accessKey().isEmpty()) return;
+
+        final var freeSlots = maxPartySize - Math.max(presence.partySize(), 1);
+        if (freeSlots <= 0) {
+            // the latest presence is the most accurate, the party is full for everyone in it.
+            drop(partyId);
+            return;
+        }
+
+        var entry = byParty.get(partyId);
+        if (entry == null) {
+            entry = new Entry();
+            byParty.put(partyId, entry);
+        } else {
+            byFreeSlots.get(entry.party.freeSlots).remove(partyId);
+        }
+        entry.party = new JoinableParty(presence, freeSlots, System.currentTimeMillis());
+        entry.accounts.add(accountId);
+        partyOf.put(accountId, partyId);
+        byFreeSlots.get(freeSlots).put(partyId, entry.party);
+    }
+
+    /**
+     * Remove the provided account from the party it showed, for example when they go offline.
+     * The party is removed once no account shows it.
+     *
+     * @param accountId the account ID
+     */
+    public synchronized void remove(final String accountId) {
+        final var partyId = partyOf.remove(accountId);
+        if (partyId == null) return;
+
+        final var entry = byParty.get(partyId);
+        if (entry == null) return;
+        entry.accounts.remove(accountId);
+        if (entry.accounts.isEmpty()) drop(partyId);
+    }
+
+    /**
+     * @return the fresh party with the most free slots.
+     */
+    public Optional<JoinableParty> best() {
+        return best(1);
+    }
+
+    /**
+     * @param minFreeSlots the least amount of free slots the party should have.
+     * @return the fresh party with the most free slots, if it has at least {@code minFreeSlots}
+     */
+    public synchronized Optional<JoinableParty> best(final int minFreeSlots) {
+        final var now = System.currentTimeMillis();
+        for (int freeSlots = maxPartySize; freeSlots >= Math.max(minFreeSlots, 1); freeSlots--) {
+            final var bucket = byFreeSlots.get(freeSlots);
+            final var iterator = bucket.values().iterator();
+            while (iterator.hasNext()) {
+                final var party = iterator.next();
+                if (now - party.updatedAt <= ttlMillis) return Optional.of(party);
+                iterator.remove();
+                forget(party.partyId());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the party of the account if it is joinable and fresh.
+     */
+    public synchronized Optional<JoinableParty> get(final String accountId) {
+        final var partyId = partyOf.get(accountId);
+        return partyId == null ? Optional.empty() : getParty(partyId);
+    }
+
+    /**
+     * @param partyId the party ID
+     * @return the party if it is joinable and fresh.
+     */
+    public synchronized Optional<JoinableParty> getParty(final String partyId) {
+        final var entry = byParty.get(partyId);
+        if (entry == null || System.currentTimeMillis() - entry.party.updatedAt > ttlMillis) return Optional.empty();
+        return Optional.of(entry.party);
+    }
+
+    /**
+     * @return every fresh party, most free slots first.
+     */
+    public synchronized List<JoinableParty> all() {
+        final var now = System.currentTimeMillis();
+        final var parties = new ArrayList<JoinableParty>(byParty.size());
+        for (int freeSlots = maxPartySize; freeSlots > 0; freeSlots--) {
+            for (final var party : byFreeSlots.get(freeSlots).values()) if (now - party.updatedAt <= ttlMillis) parties.add(party);
+        }
+        return parties;
+    }
+
+    /**
+     * @return {@code true} if parties are indexed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return how many parties are kept, including ones past the TTL that were not dropped yet.
+     */
+    public synchronized int size() {
+        return byParty.size();
+    }
+
+    /**
+     * Removes every party.
+     */
+    public synchronized void clear() {
+        byParty.clear();
+        partyOf.clear();
+        byFreeSlots.forEach(Map::clear);
+    }
+
+    /**
+     * Removes the party from its bucket and forgets it.
+     */
+    private void drop(final String partyId) {
+        final var entry = byParty.get(partyId);
+        if (entry == null) return;
+        byFreeSlots.get(entry.party.freeSlots).remove(partyId);
+        forget(partyId);
+    }
+
+    /**
+     * Forgets the party and which accounts showed it, the caller removes it from its bucket.
+     */
+    private void forget(final String partyId) {
+        final var entry = byParty.remove(partyId);
+        if (entry != null) entry.accounts.forEach(partyOf::remove);
+    }
+
+    /**
+     * The latest state of a party and the accounts whose latest presence showed it.
+     */
+    private static final class Entry {
+        private final Set<String> accounts = new HashSet<>();
+        private JoinableParty party;
+    }
+
+    /**
+     * The party of a friend that can be joined.
+     */
+    public static final class JoinableParty {
+
+        private final FortnitePresence presence;
+        private final int freeSlots;
+        private final long updatedAt;
+
+        private JoinableParty(final FortnitePresence presence, final int freeSlots, final long updatedAt) {
+            this.presence = presence;
+            this.freeSlots = freeSlots;
+            this.updatedAt = updatedAt;
+        }
+
+        /**
+         * @return the presence that showed this party, its sender is who to request joining from.
+         */
+        public FortnitePresence presence() {
+            return presence;
+        }
+
+        /**
+         * @return the party ID
+         */
+        public String partyId() {
+            return presence.partyId().orElseThrow();
+        }
+
+        /**
+         * @return the access key
+         */
+        public String accessKey() {
+            return presence.accessKey().orElseThrow();
+        }
+
+        /**
+         * @return how many slots are free
+         */
+        public int freeSlots() {
+            return freeSlots;
+        }
+
+        /**
+         * @return when the party was last seen in milliseconds since the epoch.
+         */
+        public long updatedAt() {
+            return updatedAt;
+        }
+
+    }
+
+}
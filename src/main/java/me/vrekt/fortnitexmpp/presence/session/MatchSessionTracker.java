@@ -0,0 +1,194 @@
+package me.vrekt.fortnitexmpp.presence.session;
+
+import me.vrekt.fortnitexmpp.dispatch.Bulkhead;
+import me.vrekt.fortnitexmpp.dispatch.ListenerList;
+import me.vrekt.fortnitexmpp.dispatch.ListenerMonitor;
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+import me.vrekt.fortnitexmpp.presence.session.implementation.MatchSession;
+import me.vrekt.fortnitexmpp.presence.session.implementation.MatchSessionListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns the session ID, playing state and players remaining of presences into match session events.
+ * Only the current session of every friend is kept, a session is forgotten once it ends.
+ * Nothing is tracked while there are no listeners.
+ */
+public final class MatchSessionTracker {
+
+    private final ListenerList<MatchSessionListener> listeners;
+    private final Map<String, Tracked> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize this tracker
+     *
+     * @param monitor the monitor listeners are invoked through
+     */
+    public MatchSessionTracker(final ListenerMonitor monitor) {
+        this.listeners = new ListenerList<>(monitor);
+    }
+
+    /**
+     * Add a listener
+     *
+     * @param listener the listener
+     */
+    public void addListener(final MatchSessionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a listener that is invoked inside the provided {@code bulkhead} instead of on the connection thread.
+     *
+     * @param listener the listener
+     * @param bulkhead the bulkhead
+     */
+    public void addListener(final MatchSessionListener listener, final Bulkhead bulkhead) {
+        listeners.add(listener, bulkhead);
+    }
+
+    /**
+     * Remove a listener
+     *
+     * @param listener the listener
+     */
+    public void removeListener(final MatchSessionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Update the session of the presence's account.
+     *
+     * @param presence the presence
+     */
+    public void update(final FortnitePresence presence) {
+        if (listeners.isEmpty()) return;
+
+        final var accountId = presence.accountId();
+        final var sessionId = presence.isPlaying() ? presence.sessionId().orElse(null) : null;
+        if (sessionId == null) {
+            end(accountId);
+            return;
+        }
+
+        final var now = System.currentTimeMillis();
+        final var players = presence.playersRemaining();
+        // decide per account inside compute, the listeners are invoked once it returns.
+        final var outcome = new Outcome();
+        sessions.compute(accountId, (id, current) -> {
+            if (current != null && current.sessionId.equals(sessionId)) {
+                synchronized (current) {
+                    if (current.playersRemaining == players) return current;
+                    outcome.previousPlayers = current.playersRemaining;
+                    current.playersRemaining = players;
+                    current.lowestPlayersRemaining = Math.min(current.lowestPlayersRemaining, players);
+                    current.updatedAt = now;
+                    current.updates++;
+                    outcome.updated = current.snapshot(-1);
+                }
+                return current;
+            }
+
+            if (current != null) {
+                synchronized (current) {
+                    outcome.ended = current.snapshot(now);
+                }
+            }
+            final var started = new Tracked(accountId, sessionId, now, players);
+            outcome.started = started.snapshot(-1);
+            return started;
+        });
+
+        if (outcome.ended != null) listeners.forEach(listener -> listener.onMatchEnded(outcome.ended));
+        if (outcome.started != null) listeners.forEach(listener -> listener.onMatchStarted(outcome.started));
+        if (outcome.updated != null) listeners.forEach(listener -> listener.onPlayersRemaining(outcome.updated, outcome.previousPlayers));
+    }
+
+    /**
+     * End the session of the provided account, for example when they go offline.
+     *
+     * @param accountId the account ID
+     */
+    public void end(final String accountId) {
+        final var removed = sessions.remove(accountId);
+        if (removed != null) ended(removed, System.currentTimeMillis());
+    }
+
+    /**
+     * @param accountId the account ID
+     * @return the current session of the account
+     */
+    public Optional<MatchSession> current(final String accountId) {
+        final var tracked = sessions.get(accountId);
+        if (tracked == null) return Optional.empty();
+        synchronized (tracked) {
+            return Optional.of(tracked.snapshot(-1));
+        }
+    }
+
+    /**
+     * @return how many friends are in a session
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Forgets every session without invoking the listeners.
+     */
+    public void clear() {
+        sessions.clear();
+    }
+
+    /**
+     * Removes every listener and session.
+     */
+    public void dispose() {
+        listeners.clear();
+        sessions.clear();
+    }
+
+    private void ended(final Tracked tracked, final long now) {
+        final MatchSession snapshot;
+        synchronized (tracked) {
+            snapshot = tracked.snapshot(now);
+        }
+        listeners.forEach(listener -> listener.onMatchEnded(snapshot));
+    }
+
+    /**
+     * What an update changed, filled inside {@code compute}
+     */
+    private static final class Outcome {
+        private MatchSession started, ended, updated;
+        private int previousPlayers;
+    }
+
+    /**
+     * The aggregates of a current session.
+     */
+    private static final class Tracked {
+        private final String accountId, sessionId;
+        private final long startedAt;
+        private final int playersAtStart;
+        private long updatedAt;
+        private int playersRemaining, lowestPlayersRemaining, updates;
+
+        private Tracked(final String accountId, final String sessionId, final long startedAt, final int players) {
+            this.accountId = accountId;
+            this.sessionId = sessionId;
+            this.startedAt = startedAt;
+            this.updatedAt = startedAt;
+            this.playersAtStart = players;
+            this.playersRemaining = players;
+            this.lowestPlayersRemaining = players;
+        }
+
+        private MatchSession snapshot(final long endedAt) {
+            return new MatchSession(accountId, sessionId, startedAt, updatedAt, endedAt, playersAtStart, playersRemaining, lowestPlayersRemaining, updates);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package me.vrekt.fortnitexmpp.presence.session.implementation;
+
+/**
+ * A snapshot of the match session of a friend.
+ */
+public final class MatchSession {
+
+    private final String accountId, sessionId;
+    private final long startedAt, updatedAt, endedAt;
+    private final int playersAtStart, playersRemaining, lowestPlayersRemaining, updates;
+
+    public MatchSession(final String accountId, final String sessionId, final long startedAt, final long updatedAt, final long endedAt,
+                        final int playersAtStart, final int playersRemaining, final int lowestPlayersRemaining, final int updates) {
+        this.accountId = accountId;
+        this.sessionId = sessionId;
+        this.startedAt = startedAt;
+        this.updatedAt = updatedAt;
+        this.endedAt = endedAt;
+        this.playersAtStart = playersAtStart;
+        this.playersRemaining = playersRemaining;
+        this.lowestPlayersRemaining = lowestPlayersRemaining;
+        this.updates = updates;
+    }
+
+    /**
+     * @return the account ID of the friend
+     */
+    public String accountId() {
+        return accountId;
+    }
+
+    /**
+     * @return the session ID
+     */
+    public String sessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return when the session started in milliseconds since the epoch.
+     */
+    public long startedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return when the players remaining last changed in milliseconds since the epoch.
+     */
+    public long updatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * @return when the session ended in milliseconds since the epoch, or {@code -1} if it has not ended.
+     */
+    public long endedAt() {
+        return endedAt;
+    }
+
+    /**
+     * @return {@code true} if the session has ended
+     */
+    public boolean hasEnded() {
+        return endedAt != -1;
+    }
+
+    /**
+     * @return how long the session lasted, or has lasted so far, in milliseconds.
+     */
+    public long duration() {
+        return (hasEnded() ? endedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /**
+     * @return the players remaining when the session started
+     */
+    public int playersAtStart() {
+        return playersAtStart;
+    }
+
+    /**
+     * @return the latest players remaining
+     */
+    public int playersRemaining() {
+        return playersRemaining;
+    }
+
+    /**
+     * @return the lowest players remaining seen during the session
+     */
+    public int lowestPlayersRemaining() {
+        return lowestPlayersRemaining;
+    }
+
+    /**
+     * @return how many times the players remaining changed
+     */
+    public int updates() {
+        return updates;
+    }
+
+}
@@ -0,0 +1,33 @@
+package me.vrekt.fortnitexmpp.presence.session.implementation;
+
+public interface MatchSessionListener {
+
+    /**
+     * Invoked when a friend starts playing in a new session.
+     *
+     * @param session the session
+     */
+    default void onMatchStarted(final MatchSession session) {
+
+    }
+
+    /**
+     * Invoked when the players remaining in the session of a friend changes.
+     *
+     * @param session  the session
+     * @param previous the players remaining before this update
+     */
+    default void onPlayersRemaining(final MatchSession session, final int previous) {
+
+    }
+
+    /**
+     * Invoked when a friend stops playing, changes session or goes offline.
+     *
+     * @param session the session, {@link MatchSession#endedAt()} is set.
+     */
+    default void onMatchEnded(final MatchSession session) {
+
+    }
+
+}
@@ -0,0 +1,375 @@
+package me.vrekt.fortnitexmpp.presence.store;
+
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+import org.jxmpp.jid.Jid;
+
+import javax.json.Json;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A compact store for accounts with large friend lists.
+ * Account IDs (32 hex characters) are stored as two {@code long}s in an open addressing table,
+ * the numeric fields are packed into primitive arrays and only the fields {@link FortnitePresence} exposes are kept.
+ * Presences are rebuilt when read. The raw status is not kept, {@link FortnitePresence#status()} of a stored presence
+ * is a minimal status rebuilt from the kept fields on demand.
+ * <p>
+ * Reads share a read lock, only storing and removing presences take the write lock.
+ * <p>
+ * Account IDs that are not 32 hex characters are kept in a regular map.
+ */
+public final class CompactPresenceStore implements PresenceStore {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final byte USED = 1, PLAYING = 1 << 1, VALID = 1 << 2;
+
+    // the references stored per slot
+    private static final int SESSION_ID = 0, PARTY_ID = 1, PARTY_KEY = 2, FROM = 3, REFERENCES = 4;
+
+    private long[] high, low;
+    // party size in the upper 16 bits, players remaining in the lower 16.
+    private int[] counts;
+    private byte[] flags;
+    private Object[] references;
+    private int size;
+
+    private final Map<String, FortnitePresence> other = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CompactPresenceStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public FortnitePresence put(final FortnitePresence presence) {
+        final var accountId = presence.accountId();
+        if (!isHex(accountId)) {
+            lock.writeLock().lock();
+            try {
+                return other.put(accountId, presence);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // read every field before locking, decoding the status may take a while.
+        final var count = clamp(presence.partySize()) << 16 | clamp(presence.playersRemaining());
+        final var flag = (byte) (USED | (presence.isPlaying() ? PLAYING : 0) | (presence.isValid() ? VALID : 0));
+        final var sessionId = presence.sessionId().orElse(null);
+        final var partyId = presence.partyId().orElse(null);
+        final var partyKey = presence.accessKey().orElse(null);
+        final var high = parseHex(accountId, 0);
+        final var low = parseHex(accountId, 16);
+
+        lock.writeLock().lock();
+        try {
+            return put(accountId, high, low, count, flag, sessionId, partyId, partyKey, presence.getFrom());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private FortnitePresence put(final String accountId, final long high, final long low, final int count, final byte flag,
+                                 final String sessionId, final String partyId, final String partyKey, final Jid from) {
+        var slot = find(high, low);
+        FortnitePresence previous = null;
+        if (slot >= 0) {
+            previous = read(slot, accountId);
+        } else {
+            if ((size + 1) * 2 > flags.length) resize();
+            slot = -find(high, low) - 1;
+            this.high[slot] = high;
+            this.low[slot] = low;
+            size++;
+        }
+
+        counts[slot] = count;
+        flags[slot] = flag;
+        final var base = slot * REFERENCES;
+        references[base + SESSION_ID] = sessionId;
+        references[base + PARTY_ID] = partyId;
+        references[base + PARTY_KEY] = partyKey;
+        references[base + FROM] = from;
+        return previous;
+    }
+
+    @Override
+    public FortnitePresence get(final String accountId) {
+        final var hex = isHex(accountId);
+        final var high = hex ? parseHex(accountId, 0) : 0;
+        final var low = hex ? parseHex(accountId, 16) : 0;
+        lock.readLock().lock();
+        try {
+            if (!hex) return other.get(accountId);
+            final var slot = find(high, low);
+            return slot >= 0 ? read(slot, accountId) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public FortnitePresence remove(final String accountId) {
+        final var hex = isHex(accountId);
+        final var high = hex ? parseHex(accountId, 0) : 0;
+        final var low = hex ? parseHex(accountId, 16) : 0;
+        lock.writeLock().lock();
+        try {
+            if (!hex) return other.remove(accountId);
+            final var slot = find(high, low);
+            if (slot < 0) return null;
+
+            final var previous = read(slot, accountId);
+            delete(slot);
+            size--;
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(final Consumer<FortnitePresence> consumer) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < flags.length; slot++) {
+                if ((flags[slot] & USED) != 0) consumer.accept(read(slot, null));
+            }
+            other.values().forEach(consumer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + other.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            allocate(INITIAL_CAPACITY);
+            size = 0;
+            other.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void allocate(final int capacity) {
+        high = new long[capacity];
+        low = new long[capacity];
+        counts = new int[capacity];
+        flags = new byte[capacity];
+        references = new Object[capacity * REFERENCES];
+    }
+
+    /**
+     * @return the slot of the key, or {@code -(insertion slot) - 1} if it is not present.
+     */
+    private int find(final long high, final long low) {
+        final var mask = flags.length - 1;
+        var slot = hash(high, low) & mask;
+        while ((flags[slot] & USED) != 0) {
+            if (this.high[slot] == high && this.low[slot] == low) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    /**
+     * Removes the slot, shifting back any entry that probed past it.
+     */
+    private void delete(int slot) {
+        final var mask = flags.length - 1;
+        var next = slot;
+        while (true) {
+            clearSlot(slot);
+            while (true) {
+                next = (next + 1) & mask;
+                if ((flags[next] & USED) == 0) return;
+                final var ideal = hash(high[next], low[next]) & mask;
+                // the entry at next can move to slot only if slot lies cyclically between its ideal slot and next.
+                if (slot <= next ? (slot >= ideal || ideal > next) : (slot >= ideal && ideal > next)) break;
+            }
+            move(next, slot);
+            slot = next;
+        }
+    }
+
+    private void move(final int from, final int to) {
+        high[to] = high[from];
+        low[to] = low[from];
+        counts[to] = counts[from];
+        flags[to] = flags[from];
+        System.arraycopy(references, from * REFERENCES, references, to * REFERENCES, REFERENCES);
+    }
+
+    private void clearSlot(final int slot) {
+        flags[slot] = 0;
+        for (int i = 0; i < REFERENCES; i++) references[slot * REFERENCES + i] = null;
+    }
+
+    private void resize() {
+        final var oldHigh = high;
+        final var oldLow = low;
+        final var oldCounts = counts;
+        final var oldFlags = flags;
+        final var oldReferences = references;
+        allocate(oldFlags.length * 2);
+
+        for (int slot = 0; slot < oldFlags.length; slot++) {
+            if ((oldFlags[slot] & USED) == 0) continue;
+            final var target = -find(oldHigh[slot], oldLow[slot]) - 1;
+            high[target] = oldHigh[slot];
+            low[target] = oldLow[slot];
+            counts[target] = oldCounts[slot];
+            flags[target] = oldFlags[slot];
+            System.arraycopy(oldReferences, slot * REFERENCES, references, target * REFERENCES, REFERENCES);
+        }
+    }
+
+    private FortnitePresence read(final int slot, final String accountId) {
+        final var base = slot * REFERENCES;
+        return new StoredPresence(accountId == null ? toHex(high[slot], low[slot]) : accountId,
+                (String) references[base + SESSION_ID], (String) references[base + PARTY_ID],
+                (String) references[base + PARTY_KEY], (Jid) references[base + FROM], counts[slot] >>> 16, counts[slot] & 0xFFFF, flags[slot]);
+    }
+
+    /**
+     * @return the value clamped to {@code [0, 0xFFFF]}, so it fits its half of the counts.
+     */
+    private static int clamp(final int value) {
+        return Math.max(0, Math.min(value, 0xFFFF));
+    }
+
+    private static int hash(final long high, final long low) {
+        final var hash = high * 0x9E3779B97F4A7C15L ^ low;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static boolean isHex(final String accountId) {
+        if (accountId.length() != 32) return false;
+        for (int i = 0; i < 32; i++) {
+            final var c = accountId.charAt(i);
+            // only lower case so the ID can be rebuilt exactly.
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) return false;
+        }
+        return true;
+    }
+
+    private static long parseHex(final String accountId, final int offset) {
+        return Long.parseUnsignedLong(accountId.substring(offset, offset + 16), 16);
+    }
+
+    private static String toHex(final long high, final long low) {
+        final var builder = new StringBuilder(32);
+        final var highHex = Long.toHexString(high);
+        final var lowHex = Long.toHexString(low);
+        for (int i = highHex.length(); i < 16; i++) builder.append('0');
+        builder.append(highHex);
+        for (int i = lowHex.length(); i < 16; i++) builder.append('0');
+        return builder.append(lowHex).toString();
+    }
+
+    /**
+     * A presence rebuilt from the store.
+     */
+    private static final class StoredPresence implements FortnitePresence {
+        private final String accountId, sessionId, partyId, partyKey;
+        private final Jid from;
+        private final int partySize, playersRemaining;
+        private final byte flags;
+
+        private StoredPresence(final String accountId, final String sessionId, final String partyId,
+                               final String partyKey, final Jid from, final int partySize, final int playersRemaining, final byte flags) {
+            this.accountId = accountId;
+            this.sessionId = sessionId;
+            this.partyId = partyId;
+            this.partyKey = partyKey;
+            this.from = from;
+            this.partySize = partySize;
+            this.playersRemaining = playersRemaining;
+            this.flags = flags;
+        }
+
+        @Override
+        public String accountId() {
+            return accountId;
+        }
+
+        @Override
+        public Optional<String> sessionId() {
+            return Optional.ofNullable(sessionId);
+        }
+
+        @Override
+        public Optional<String> partyId() {
+            return Optional.ofNullable(partyId);
+        }
+
+        @Override
+        public Optional<String> accessKey() {
+            return Optional.ofNullable(partyKey);
+        }
+
+        /**
+         * @return a status with only the kept fields, parsing it gives the same fields. {@code null} if the stored status was not valid.
+         */
+        @Override
+        public String status() {
+            if ((flags & VALID) == 0) return null;
+            final var properties = Json.createObjectBuilder()
+                    .add("FortPartySize_i", partySize)
+                    .add("ServerPlayerCount_i", playersRemaining);
+            if (partyId != null && partyKey != null) {
+                properties.add(Party.PARTY_DATA_INFO, Json.createObjectBuilder().add("partyId", partyId).add("key", partyKey));
+            }
+            return Json.createObjectBuilder()
+                    .add("Status", "")
+                    .add("bIsPlaying", (flags & PLAYING) != 0)
+                    .add("SessionId", sessionId == null ? "" : sessionId)
+                    .add("Properties", properties)
+                    .build().toString();
+        }
+
+        @Override
+        public int playersRemaining() {
+            return playersRemaining;
+        }
+
+        @Override
+        public int partySize() {
+            return partySize;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return (flags & PLAYING) != 0;
+        }
+
+        @Override
+        public Jid getFrom() {
+            return from;
+        }
+
+        @Override
+        public boolean isValid() {
+            return (flags & VALID) != 0;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package me.vrekt.fortnitexmpp.presence.store;
+
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every presence as is in a {@link ConcurrentHashMap}
+ */
+public final class DefaultPresenceStore implements PresenceStore {
+
+    private final Map<String, FortnitePresence> presences = new ConcurrentHashMap<>();
+
+    @Override
+    public FortnitePresence put(final FortnitePresence presence) {
+        return presences.put(presence.accountId(), presence);
+    }
+
+    @Override
+    public FortnitePresence get(final String accountId) {
+        return presences.get(accountId);
+    }
+
+    @Override
+    public FortnitePresence remove(final String accountId) {
+        return presences.remove(accountId);
+    }
+
+    @Override
+    public void forEach(final Consumer<FortnitePresence> consumer) {
+        presences.values().forEach(consumer);
+    }
+
+    @Override
+    public int size() {
+        return presences.size();
+    }
+
+    @Override
+    public void clear() {
+        presences.clear();
+    }
+
+}
@@ -0,0 +1,51 @@
+package me.vrekt.fortnitexmpp.presence.store;
+
+import me.vrekt.fortnitexmpp.presence.implementation.FortnitePresence;
+
+import java.util.function.Consumer;
+
+/**
+ * Stores the latest {@link FortnitePresence} of every account.
+ */
+public interface PresenceStore {
+
+    /**
+     * Store the presence, replacing the previous presence of its account.
+     *
+     * @param presence the presence
+     * @return the previous presence or {@code null}
+     */
+    FortnitePresence put(final FortnitePresence presence);
+
+    /**
+     * @param accountId the account ID
+     * @return the presence or {@code null} if none is stored.
+     */
+    FortnitePresence get(final String accountId);
+
+    /**
+     * Remove the presence of the provided account.
+     *
+     * @param accountId the account ID
+     * @return the removed presence or {@code null}
+     */
+    FortnitePresence remove(final String accountId);
+
+    /**
+     * Invoke the consumer for every stored presence.
+     *
+     * @param consumer the consumer
+     */
+    void forEach(final Consumer<FortnitePresence> consumer);
+
+    /**
+     * @return how many presences are stored.
+     */
+    int size();
+
+    /**
+     * Removes every presence.
+     */
+    void clear();
+
+}
@@ -1,13 +1,53 @@
 package me.vrekt.fortnitexmpp.provider;
 
+import me.vrekt.fortnitexmpp.presence.cache.PresenceCache;
+import me.vrekt.fortnitexmpp.type.LogCategory;
+
 import java.util.concurrent.TimeUnit;
 
 public final class FortniteXMPPConfiguration {
 
-    private final boolean enableLogging, loadRoster, reconnectOnError;
+    private final boolean loadRoster, reconnectOnError;
     private long keepAlivePeriod = -1, reconnectionWaitTime = 5;
     private TimeUnit timeUnit;
 
+    // a mask of enabled log categories, checked before any log message is built.
+    private volatile int logCategories;
+    private volatile int payloadLogRateLimit = 1;
+
+    private int recorderCapacity = 64;
+    private int presenceCacheCapacity = 1024;
+    private PresenceCache sharedPresenceCache;
+    private int presenceHistoryDepth;
+    private int joinablePartyMaxSize = 4;
+    private long joinablePartyTtl = 2;
+    private TimeUnit joinablePartyTtlUnit = TimeUnit.MINUTES;
+    private boolean leanPresence;
+    private boolean indexPresences;
+    private boolean indexJoinableParties;
+    private boolean compactMemberData;
+
+    private int rosterBatchSize;
+    private long rosterBatchInterval;
+    private TimeUnit rosterBatchIntervalUnit = TimeUnit.MILLISECONDS;
+
+    private long presencePublishInterval;
+    private TimeUnit presencePublishIntervalUnit = TimeUnit.MILLISECONDS;
+
+    private long partyJoinTimeout = 5;
+    private TimeUnit partyJoinTimeoutUnit = TimeUnit.SECONDS;
+    private int partyJoinRetries = 1;
+
+    private int maxPendingPartyRequests = 1024;
+    private long partyRequestTimeout = 10;
+    private TimeUnit partyRequestTimeoutUnit = TimeUnit.SECONDS;
+
+    private long metricsExportPeriod = -1;
+    private TimeUnit metricsExportTimeUnit;
+
+    private long listenerBudget = -1;
+    private TimeUnit listenerBudgetTimeUnit;
+
     /**
      * @return the default configuration to use. {@code logExceptions} = {@code true} / {@code loadRoster} = {@code true}
      */
@@ -22,7 +62,7 @@ public final class FortniteXMPPConfiguration {
      * @param loadRoster    {@code true} if the roster should be loaded on login.
      */
     public FortniteXMPPConfiguration(final boolean enableLogging, final boolean loadRoster, final boolean reconnectOnError) {
-        this.enableLogging = enableLogging;
+        this.logCategories = enableLogging ? LogCategory.ALL : 0;
         this.loadRoster = loadRoster;
         this.reconnectOnError = reconnectOnError;
     }
@@ -75,8 +115,419 @@ public final class FortniteXMPPConfiguration {
         this.reconnectionWaitTime = reconnectionWaitTime;
     }
 
+    /**
+     * @return a copy of this configuration, changing the copy does not change this configuration.
+     */
+    public FortniteXMPPConfiguration copy() {
+        final var copy = new FortniteXMPPConfiguration(false, loadRoster, reconnectOnError, keepAlivePeriod, timeUnit, reconnectionWaitTime);
+        copy.logCategories = logCategories;
+        copy.payloadLogRateLimit = payloadLogRateLimit;
+        copy.recorderCapacity = recorderCapacity;
+        copy.presenceCacheCapacity = presenceCacheCapacity;
+        copy.sharedPresenceCache = sharedPresenceCache;
+        copy.presenceHistoryDepth = presenceHistoryDepth;
+        copy.joinablePartyMaxSize = joinablePartyMaxSize;
+        copy.joinablePartyTtl = joinablePartyTtl;
+        copy.joinablePartyTtlUnit = joinablePartyTtlUnit;
+        copy.leanPresence = leanPresence;
+        copy.indexPresences = indexPresences;
+        copy.indexJoinableParties = indexJoinableParties;
+        copy.compactMemberData = compactMemberData;
+        copy.rosterBatchSize = rosterBatchSize;
+        copy.rosterBatchInterval = rosterBatchInterval;
+        copy.rosterBatchIntervalUnit = rosterBatchIntervalUnit;
+        copy.presencePublishInterval = presencePublishInterval;
+        copy.presencePublishIntervalUnit = presencePublishIntervalUnit;
+        copy.partyJoinTimeout = partyJoinTimeout;
+        copy.partyJoinTimeoutUnit = partyJoinTimeoutUnit;
+        copy.partyJoinRetries = partyJoinRetries;
+        copy.maxPendingPartyRequests = maxPendingPartyRequests;
+        copy.partyRequestTimeout = partyRequestTimeout;
+        copy.partyRequestTimeoutUnit = partyRequestTimeoutUnit;
+        copy.metricsExportPeriod = metricsExportPeriod;
+        copy.metricsExportTimeUnit = metricsExportTimeUnit;
+        copy.listenerBudget = listenerBudget;
+        copy.listenerBudgetTimeUnit = listenerBudgetTimeUnit;
+        return copy;
+    }
+
+    /**
+     * Enable debug logging for the provided categories.
+     *
+     * @param categories the categories
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration enableLogging(final LogCategory... categories) {
+        var mask = logCategories;
+        for (final var category : categories) mask |= category.mask();
+        logCategories = mask;
+        return this;
+    }
+
+    /**
+     * Disable debug logging for the provided categories.
+     *
+     * @param categories the categories
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration disableLogging(final LogCategory... categories) {
+        var mask = logCategories;
+        for (final var category : categories) mask &= ~category.mask();
+        logCategories = mask;
+        return this;
+    }
+
+    /**
+     * Set how often payload logs ({@link LogCategory#PARTY_WIRE}, {@link LogCategory#FRIEND_WIRE}) may be emitted per log statement.
+     *
+     * @param seconds the minimum amount of seconds between two payload logs, {@code 0} to log every payload.
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPayloadLogRateLimit(final int seconds) {
+        this.payloadLogRateLimit = Math.max(0, seconds);
+        return this;
+    }
+
+    /**
+     * Set how many of the most recent stanzas are kept in memory and dumped when an error occurs.
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is created.
+     *
+     * @param capacity the amount of stanzas to keep, {@code 0} to disable the recorder.
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setRecorderCapacity(final int capacity) {
+        this.recorderCapacity = Math.max(0, capacity);
+        return this;
+    }
+
+    /**
+     * Set how many parsed presence statuses are cached, repeated statuses are then not parsed again.
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param capacity the amount of statuses to keep, rounded up to a power of two. {@code 0} to disable the cache.
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPresenceCacheCapacity(final int capacity) {
+        this.presenceCacheCapacity = Math.max(0, capacity);
+        return this;
+    }
+
+    /**
+     * Set a presence cache that is shared with other accounts, instead of each account keeping its own.
+     * When many accounts in the same JVM are friends with the same players, a status is then only parsed once for all of them.
+     * Pass the same cache to the configuration of every account, or use one configuration for all accounts in {@link MultipleAccountsProvider}
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param cache the cache to share, {@code null} to use a cache per account with {@link #setPresenceCacheCapacity(int)}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setSharedPresenceCache(final PresenceCache cache) {
+        this.sharedPresenceCache = cache;
+        return this;
+    }
+
+    /**
+     * Set how many presence transitions are kept for every friend, see {@link me.vrekt.fortnitexmpp.presence.PresenceResource#history()}
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param depth the amount of transitions to keep per friend, {@code 0} to disable the history.
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPresenceHistoryDepth(final int depth) {
+        this.presenceHistoryDepth = Math.max(0, depth);
+        return this;
+    }
+
+    /**
+     * Set if the parties of friends that can be joined should be kept in {@link me.vrekt.fortnitexmpp.presence.PresenceResource#joinableParties()}
+     * Indexing reads the party of every presence, so every presence is fully decoded.
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param indexJoinableParties {@code true} to index joinable parties
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setIndexJoinableParties(final boolean indexJoinableParties) {
+        this.indexJoinableParties = indexJoinableParties;
+        return this;
+    }
+
+    /**
+     * Set how parties are kept in {@link me.vrekt.fortnitexmpp.presence.PresenceResource#joinableParties()}, see {@link #setIndexJoinableParties(boolean)}
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param maxPartySize the max amount of members in a party, used to find the free slots. Defaults to {@code 4}, the size of a default party.
+     * @param ttl          how long a party is considered joinable after the last presence that showed it. Defaults to {@code 2} minutes.
+     * @param unit         the unit of {@code ttl}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setJoinableParties(final int maxPartySize, final long ttl, final TimeUnit unit) {
+        this.joinablePartyMaxSize = maxPartySize;
+        this.joinablePartyTtl = ttl;
+        this.joinablePartyTtlUnit = unit;
+        return this;
+    }
+
+    /**
+     * Set if the latest presence of every friend should be kept in {@link me.vrekt.fortnitexmpp.presence.PresenceResource#index()}
+     * Indexing reads the party, session and playing state of every presence, so every presence is fully decoded.
+     * Lean mode always keeps presences in the index.
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param indexPresences {@code true} to index presences
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setIndexPresences(final boolean indexPresences) {
+        this.indexPresences = indexPresences;
+        return this;
+    }
+
+    /**
+     * Set if presences should be kept lean, meant for accounts with large friend lists.
+     * In lean mode the roster is never loaded and does not keep presences,
+     * the latest presence of every friend is only kept in a compact store behind {@link me.vrekt.fortnitexmpp.presence.PresenceResource#index()}
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is connected.
+     *
+     * @param leanPresence {@code true} to enable lean mode
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setLeanPresence(final boolean leanPresence) {
+        this.leanPresence = leanPresence;
+        return this;
+    }
+
+    /**
+     * Set if the data of party members should be kept compact, meant for accounts that track many members.
+     * Compact data does not keep the received payload and shares equal strings, like cosmetic IDs, between members.
+     *
+     * @param compactMemberData {@code true} to keep member data compact
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setCompactMemberData(final boolean compactMemberData) {
+        this.compactMemberData = compactMemberData;
+        return this;
+    }
+
+    /**
+     * Load the roster in the background instead of blocking connect until it is loaded.
+     * Roster entries are then handled in batches, see {@link me.vrekt.fortnitexmpp.roster.RosterBootstrap}
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is created.
+     *
+     * @param batchSize the amount of roster entries handled per batch, {@code 0} to block connect instead.
+     * @param interval  the time between two batches
+     * @param timeUnit  the time unit of {@code interval}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setRosterBootstrap(final int batchSize, final long interval, final TimeUnit timeUnit) {
+        this.rosterBatchSize = Math.max(0, batchSize);
+        this.rosterBatchInterval = interval;
+        this.rosterBatchIntervalUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * Set the minimum time between two presences sent by this account.
+     * Presences set faster than this are coalesced and only the latest one is sent, identical presences are never sent twice.
+     *
+     * @param interval the minimum interval, {@code 0} to send every presence that changed right away.
+     * @param timeUnit the time unit of {@code interval}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPresencePublishInterval(final long interval, final TimeUnit timeUnit) {
+        this.presencePublishInterval = interval;
+        this.presencePublishIntervalUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * Set how joins through {@link me.vrekt.fortnitexmpp.FortniteXMPP#partyJoiner()} handle parties that do not answer.
+     *
+     * @param timeout  how long to wait for an answer before sending again. Defaults to {@code 5} seconds.
+     * @param timeUnit the time unit of {@code timeout}
+     * @param retries  how many times a phase is sent again before the join fails. Defaults to {@code 1}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPartyJoinTimeout(final long timeout, final TimeUnit timeUnit, final int retries) {
+        this.partyJoinTimeout = timeout;
+        this.partyJoinTimeoutUnit = timeUnit;
+        this.partyJoinRetries = retries;
+        return this;
+    }
+
+    /**
+     * Set how party requests that wait for a response, like {@link me.vrekt.fortnitexmpp.party.PartyResource#queryJoinability}, are kept.
+     *
+     * @param maximum  the maximum amount of requests waiting for a response. Defaults to {@code 1024}
+     * @param timeout  how long to wait for a response unless given with the request. Defaults to {@code 10} seconds.
+     * @param timeUnit the time unit of {@code timeout}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setPendingPartyRequests(final int maximum, final long timeout, final TimeUnit timeUnit) {
+        this.maxPendingPartyRequests = maximum;
+        this.partyRequestTimeout = timeout;
+        this.partyRequestTimeoutUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * Set how often registered {@link me.vrekt.fortnitexmpp.metrics.MetricsExporter} are invoked.
+     *
+     * @param period   the period between exports, {@code -1} to disable exporting.
+     * @param timeUnit the time unit of {@code period}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setMetricsExportPeriod(final long period, final TimeUnit timeUnit) {
+        this.metricsExportPeriod = period;
+        this.metricsExportTimeUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * Set how long a listener may take before a warning is logged, listeners are not monitored by default.
+     * This must be set before the {@link me.vrekt.fortnitexmpp.FortniteXMPP} instance is created.
+     *
+     * @param budget   the budget, {@code -1} to disable listener monitoring.
+     * @param timeUnit the time unit of {@code budget}
+     * @return this configuration
+     */
+    public FortniteXMPPConfiguration setListenerBudget(final long budget, final TimeUnit timeUnit) {
+        this.listenerBudget = budget;
+        this.listenerBudgetTimeUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if any debug logging category is enabled.
+     */
     public boolean doEnableLogging() {
-        return enableLogging;
+        return logCategories != 0;
+    }
+
+    /**
+     * @param category the category
+     * @return {@code true} if debug logging is enabled for the provided {@code category}
+     */
+    public boolean doEnableLogging(final LogCategory category) {
+        return (logCategories & category.mask()) != 0;
+    }
+
+    public int getPayloadLogRateLimit() {
+        return payloadLogRateLimit;
+    }
+
+    public int getRecorderCapacity() {
+        return recorderCapacity;
+    }
+
+    public int getPresenceCacheCapacity() {
+        return presenceCacheCapacity;
+    }
+
+    public PresenceCache getSharedPresenceCache() {
+        return sharedPresenceCache;
+    }
+
+    public int getPresenceHistoryDepth() {
+        return presenceHistoryDepth;
+    }
+
+    public int getJoinablePartyMaxSize() {
+        return joinablePartyMaxSize;
+    }
+
+    public long getJoinablePartyTtl() {
+        return joinablePartyTtl;
+    }
+
+    public TimeUnit getJoinablePartyTtlUnit() {
+        return joinablePartyTtlUnit;
+    }
+
+    public boolean doLeanPresence() {
+        return leanPresence;
+    }
+
+    public boolean doIndexJoinableParties() {
+        return indexJoinableParties;
+    }
+
+    public boolean doIndexPresences() {
+        return indexPresences || leanPresence;
+    }
+
+    public boolean doCompactMemberData() {
+        return compactMemberData;
+    }
+
+    public boolean doBootstrapRoster() {
+        return rosterBatchSize > 0;
+    }
+
+    public int getRosterBatchSize() {
+        return rosterBatchSize;
+    }
+
+    public long getRosterBatchInterval() {
+        return rosterBatchInterval;
+    }
+
+    public TimeUnit getRosterBatchIntervalUnit() {
+        return rosterBatchIntervalUnit;
+    }
+
+    public long getPresencePublishInterval() {
+        return presencePublishInterval;
+    }
+
+    public TimeUnit getPresencePublishIntervalUnit() {
+        return presencePublishIntervalUnit;
+    }
+
+    public long getPartyJoinTimeout() {
+        return partyJoinTimeout;
+    }
+
+    public TimeUnit getPartyJoinTimeoutUnit() {
+        return partyJoinTimeoutUnit;
+    }
+
+    public int getPartyJoinRetries() {
+        return partyJoinRetries;
+    }
+
+    public int getMaxPendingPartyRequests() {
+        return maxPendingPartyRequests;
+    }
+
+    public long getPartyRequestTimeout() {
+        return partyRequestTimeout;
+    }
+
+    public TimeUnit getPartyRequestTimeoutUnit() {
+        return partyRequestTimeoutUnit;
+    }
+
+    public boolean doExportMetrics() {
+        return metricsExportPeriod > 0 && metricsExportTimeUnit != null;
+    }
+
+    public long getMetricsExportPeriod() {
+        return metricsExportPeriod;
+    }
+
+    public TimeUnit getMetricsExportTimeUnit() {
+        return metricsExportTimeUnit;
+    }
+
+    public boolean doMonitorListeners() {
+        return listenerBudget > 0 && listenerBudgetTimeUnit != null;
+    }
+
+    public long getListenerBudget() {
+        return listenerBudget;
+    }
+
+    public TimeUnit getListenerBudgetTimeUnit() {
+        return listenerBudgetTimeUnit;
     }
 
     public boolean doLoadRoster() {
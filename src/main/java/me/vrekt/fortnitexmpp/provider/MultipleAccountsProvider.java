@@ -5,6 +5,7 @@ import io.github.robertograham.fortnite2.implementation.DefaultFortnite;
 import me.vrekt.fortnitexmpp.FortniteXMPP;
 import me.vrekt.fortnitexmpp.exception.FortniteAuthenticationException;
 import me.vrekt.fortnitexmpp.exception.XMPPAuthenticationException;
+import me.vrekt.fortnitexmpp.presence.cache.PresenceCache;
 import me.vrekt.fortnitexmpp.type.AppType;
 import me.vrekt.fortnitexmpp.type.PlatformType;
 
@@ -27,6 +28,20 @@ public final class MultipleAccountsProvider {
 
     private final List<AccountProvider> providers = new ArrayList<>();
     private final Map<String, FortniteXMPP> accounts = new HashMap<>();
+    private PresenceCache sharedPresenceCache;
+
+    /**
+     * Share one presence cache between all accounts connected by this provider.
+     * Statuses from friends that several accounts share are then parsed once instead of once per account.
+     * This replaces the per account cache set with {@link FortniteXMPPConfiguration#setPresenceCacheCapacity(int)}
+     *
+     * @param capacity the amount of statuses to keep, rounded up to a power of two.
+     * @return the current instance
+     */
+    public MultipleAccountsProvider sharePresenceCache(final int capacity) {
+        this.sharedPresenceCache = new PresenceCache(capacity);
+        return this;
+    }
 
     /**
      * Add one account
@@ -110,7 +125,7 @@ public final class MultipleAccountsProvider {
     public void connectAll() {
         providers.forEach(provider -> {
             try {
-                final var instance = FortniteXMPP.newFortniteXMPP(provider.builderInstance, provider.appType, provider.platformType, provider.configuration);
+                final var instance = FortniteXMPP.newFortniteXMPP(provider.builderInstance, provider.appType, provider.platformType, configuration(provider));
                 instance.connect();
 
                 accounts.put(instance.displayName(), instance);
@@ -198,6 +213,17 @@ public final class MultipleAccountsProvider {
         return accounts.values().stream().filter(xmpp -> xmpp.accountId().equals(accountId)).findAny().orElse(null);
     }
 
+    /**
+     * @param provider the provider
+     * @return the configuration of the provider, or the default configuration if none was given.
+     * With a shared presence cache this is a copy using the cache, the configuration that was given is not changed.
+     */
+    private FortniteXMPPConfiguration configuration(final AccountProvider provider) {
+        final var configuration = provider.configuration == null ? FortniteXMPPConfiguration.defaultConfiguration() : provider.configuration;
+        if (sharedPresenceCache == null) return configuration;
+        return configuration.copy().setSharedPresenceCache(sharedPresenceCache);
+    }
+
     /**
      * Authenticates the account async
      *
@@ -207,7 +233,7 @@ public final class MultipleAccountsProvider {
     private CompletableFuture<FortniteXMPP> authenticateAsync(final AccountProvider provider) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                return FortniteXMPP.newFortniteXMPP(provider.builderInstance, provider.appType, provider.platformType, provider.configuration);
+                return FortniteXMPP.newFortniteXMPP(provider.builderInstance, provider.appType, provider.platformType, configuration(provider));
             } catch (final FortniteAuthenticationException exception) {
                 throw new CompletionException(exception);
             }
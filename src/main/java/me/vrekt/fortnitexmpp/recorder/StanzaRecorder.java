@@ -0,0 +1,133 @@
+package me.vrekt.fortnitexmpp.recorder;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.flogger.LazyArgs;
+import me.vrekt.fortnitexmpp.recorder.implementation.RecordedStanza;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.filter.StanzaFilter;
+import org.jivesoftware.smack.packet.Stanza;
+import org.jivesoftware.smack.tcp.XMPPTCPConnection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last N inbound and outbound stanzas of one account in a lock-free ring buffer.
+ * Nothing is serialized until the recording is dumped, so keeping this enabled is cheap.
+ */
+public final class StanzaRecorder {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+    private static final StanzaFilter ALL = stanza -> true;
+
+    private final AtomicReferenceArray<RecordedStanza> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+
+    private final StanzaListener inboundListener = stanza -> record(true, stanza);
+    private final StanzaListener outboundListener = stanza -> record(false, stanza);
+    private XMPPTCPConnection connection;
+
+    /**
+     * Initialize this recorder
+     *
+     * @param capacity how many stanzas to keep, {@code 0} disables recording.
+     */
+    public StanzaRecorder(final int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Start recording stanzas on the provided connection, the previous connection is detached.
+     *
+     * @param connection the connection
+     */
+    public void attach(final XMPPTCPConnection connection) {
+        if (!isEnabled()) return;
+        detach();
+
+        this.connection = connection;
+        connection.addSyncStanzaListener(inboundListener, ALL);
+        connection.addStanzaSendingListener(outboundListener, ALL);
+    }
+
+    /**
+     * Stop recording stanzas, the current recording is kept.
+     */
+    public void detach() {
+        if (connection == null) return;
+        connection.removeSyncStanzaListener(inboundListener);
+        connection.removeStanzaSendingListener(outboundListener);
+        connection = null;
+    }
+
+    /**
+     * Record a stanza
+     *
+     * @param inbound {@code true} if the stanza was received
+     * @param stanza  the stanza
+     */
+    public void record(final boolean inbound, final Stanza stanza) {
+        if (!isEnabled()) return;
+        final var next = sequence.getAndIncrement();
+        buffer.set((int) (next % capacity), new RecordedStanza(next, inbound, stanza));
+    }
+
+    /**
+     * @return a snapshot of the recording, oldest first.
+     */
+    public List<RecordedStanza> snapshot() {
+        final var snapshot = new ArrayList<RecordedStanza>(capacity);
+        final var lowest = sequence.get() - capacity;
+        for (int i = 0; i < capacity; i++) {
+            final var recorded = buffer.get(i);
+            // skip empty slots and anything overwritten while copying.
+            if (recorded != null && recorded.sequence() >= lowest) snapshot.add(recorded);
+        }
+        snapshot.sort(Comparator.comparingLong(RecordedStanza::sequence));
+        return snapshot;
+    }
+
+    /**
+     * Logs the current recording, limited to one dump every 10 seconds.
+     * Use {@link #format()} or {@link #snapshot()} to get the recording on demand.
+     *
+     * @param reason why the recording is being dumped
+     */
+    public void dump(final String reason) {
+        if (!isEnabled()) return;
+        LOGGER.atWarning().atMostEvery(10, TimeUnit.SECONDS).log("Stanza recording dumped (%s):\n%s", reason, LazyArgs.lazy(this::format));
+    }
+
+    /**
+     * @return the current recording as a human readable string.
+     */
+    public String format() {
+        final var snapshot = snapshot();
+        final var builder = new StringBuilder();
+        for (int i = 0; i < snapshot.size(); i++) {
+            final var recorded = snapshot.get(i);
+            final var delta = i == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(recorded.nanoTime() - snapshot.get(i - 1).nanoTime());
+
+            builder.append('[').append(Instant.ofEpochMilli(recorded.timestamp())).append(" +").append(delta).append("ms] ")
+                    .append(recorded.isInbound() ? "IN  " : "OUT ")
+                    .append(recorded.stanza().toXML(null))
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return {@code true} if this recorder keeps any stanzas.
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+}
@@ -0,0 +1,58 @@
+package me.vrekt.fortnitexmpp.recorder.implementation;
+
+import org.jivesoftware.smack.packet.Stanza;
+
+/**
+ * A single stanza captured by the {@link me.vrekt.fortnitexmpp.recorder.StanzaRecorder}
+ * The stanza is kept as is and only serialized when the recording is dumped.
+ */
+public final class RecordedStanza {
+
+    private final long sequence, timestamp, nanoTime;
+    private final boolean inbound;
+    private final Stanza stanza;
+
+    public RecordedStanza(final long sequence, final boolean inbound, final Stanza stanza) {
+        this.sequence = sequence;
+        this.inbound = inbound;
+        this.stanza = stanza;
+        this.timestamp = System.currentTimeMillis();
+        this.nanoTime = System.nanoTime();
+    }
+
+    /**
+     * @return the position of this stanza in the recording.
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the time this stanza was recorded in milliseconds since epoch.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when this stanza was recorded.
+     */
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * @return {@code true} if this stanza was received, {@code false} if it was sent.
+     */
+    public boolean isInbound() {
+        return inbound;
+    }
+
+    /**
+     * @return the stanza
+     */
+    public Stanza stanza() {
+        return stanza;
+    }
+
+}
@@ -0,0 +1,181 @@
+package me.vrekt.fortnitexmpp.roster;
+
+import com.google.common.flogger.FluentLogger;
+import me.vrekt.fortnitexmpp.jfr.RosterLoadedEvent;
+import me.vrekt.fortnitexmpp.presence.PresenceResource;
+import me.vrekt.fortnitexmpp.roster.implementation.RosterBootstrapListener;
+import org.jivesoftware.smack.roster.Roster;
+import org.jivesoftware.smack.roster.RosterEntry;
+import org.jivesoftware.smack.roster.RosterLoadedListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads the roster without blocking connect.
+ * Once the roster is loaded its entries are passed to the {@link PresenceResource} in bounded batches on a background executor,
+ * so a large friend list does not cause one large burst of presences.
+ */
+public final class RosterBootstrap {
+
+    private static final FluentLogger LOGGER = FluentLogger.forEnclosingClass();
+
+    private final List<RosterBootstrapListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService service;
+    private final int batchSize;
+    private final long batchInterval;
+    private final TimeUnit batchIntervalUnit;
+
+    // the current run, replaced on every start so a previous connection can not continue.
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    /**
+     * Initialize this bootstrap
+     *
+     * @param service           the service batches are processed on
+     * @param batchSize         how many entries to process per batch
+     * @param batchInterval     the time between two batches
+     * @param batchIntervalUnit the time unit of {@code batchInterval}
+     */
+    public RosterBootstrap(final ScheduledExecutorService service, final int batchSize, final long batchInterval, final TimeUnit batchIntervalUnit) {
+        this.service = service;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchInterval = Math.max(0, batchInterval);
+        this.batchIntervalUnit = batchIntervalUnit;
+    }
+
+    /**
+     * Add a listener
+     *
+     * @param listener the listener
+     */
+    public void addListener(final RosterBootstrapListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     *
+     * @param listener the listener
+     */
+    public void removeListener(final RosterBootstrapListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start bootstrapping, returns immediately. Any previous run is cancelled.
+     *
+     * @param accountId the account ID, used for the {@link RosterLoadedEvent}
+     * @param roster    the roster
+     * @param presence  the presence resource entries are passed to
+     */
+    public void start(final String accountId, final Roster roster, final PresenceResource presence) {
+        final var run = new Run(accountId, roster, presence);
+        final var previous = current.getAndSet(run);
+        if (previous != null) previous.cancel();
+        run.start();
+    }
+
+    /**
+     * Cancel the current run, if any.
+     */
+    public void cancel() {
+        final var previous = current.getAndSet(null);
+        if (previous != null) previous.cancel();
+    }
+
+    /**
+     * @return {@code true} if the last run processed every roster entry.
+     */
+    public boolean isComplete() {
+        final var run = current.get();
+        return run != null && run.complete;
+    }
+
+    /**
+     * One bootstrap of one connection.
+     */
+    private final class Run implements RosterLoadedListener {
+        private final String accountId;
+        private final Roster roster;
+        private final PresenceResource presence;
+        private final long start = System.nanoTime();
+        private final RosterLoadedEvent event = new RosterLoadedEvent();
+
+        private List<RosterEntry> entries;
+        private int processed;
+        private volatile boolean loaded, cancelled, complete;
+
+        private Run(final String accountId, final Roster roster, final PresenceResource presence) {
+            this.accountId = accountId;
+            this.roster = roster;
+            this.presence = presence;
+        }
+
+        private void start() {
+            event.begin();
+            roster.addRosterLoadedListener(this);
+            if (roster.isLoaded()) {
+                onRosterLoaded(roster);
+            } else if (!roster.isRosterLoadedAtLogin()) {
+                try {
+                    roster.reload();
+                } catch (final Exception exception) {
+                    onRosterLoadingFailed(exception);
+                }
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            roster.removeRosterLoadedListener(this);
+        }
+
+        @Override
+        public synchronized void onRosterLoaded(final Roster roster) {
+            // may be invoked by both the listener and start.
+            if (loaded || cancelled) return;
+            loaded = true;
+            roster.removeRosterLoadedListener(this);
+
+            entries = new ArrayList<>(roster.getEntries());
+            event.commit(accountId, entries.size());
+            listeners.forEach(listener -> listener.onBootstrapStarted(entries.size()));
+            service.execute(this::processBatch);
+        }
+
+        @Override
+        public void onRosterLoadingFailed(final Exception exception) {
+            if (cancelled) return;
+            LOGGER.atWarning().withCause(exception).log("Failed to load the roster.");
+            listeners.forEach(listener -> listener.onBootstrapFailed(exception));
+        }
+
+        private void processBatch() {
+            if (cancelled) return;
+            try {
+                final var end = Math.min(processed + batchSize, entries.size());
+                presence.handleRosterEntries(entries.subList(processed, end));
+                processed = end;
+            } catch (final Exception exception) {
+                LOGGER.atWarning().withCause(exception).log("Failed to process roster entries, skipping batch.");
+                processed = Math.min(processed + batchSize, entries.size());
+            }
+
+            final var total = entries.size();
+            listeners.forEach(listener -> listener.onBootstrapProgress(processed, total));
+            if (processed < total) {
+                service.schedule(this::processBatch, batchInterval, batchIntervalUnit);
+            } else {
+                complete = true;
+                final var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                listeners.forEach(listener -> listener.onBootstrapCompleted(total, elapsed));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package me.vrekt.fortnitexmpp.roster.implementation;
+
+public interface RosterBootstrapListener {
+
+    /**
+     * Invoked when the roster is loaded and its entries are about to be processed.
+     *
+     * @param total the amount of roster entries
+     */
+    default void onBootstrapStarted(final int total) {
+
+    }
+
+    /**
+     * Invoked after every batch of roster entries.
+     *
+     * @param processed how many entries were processed so far
+     * @param total     the amount of roster entries
+     */
+    default void onBootstrapProgress(final int processed, final int total) {
+
+    }
+
+    /**
+     * Invoked once every roster entry was processed.
+     *
+     * @param total         the amount of roster entries
+     * @param elapsedMillis how long it took from the start of the bootstrap until every entry was processed.
+     */
+    default void onBootstrapCompleted(final int total, final long elapsedMillis) {
+
+    }
+
+    /**
+     * Invoked if the roster could not be loaded.
+     *
+     * @param exception the exception
+     */
+    default void onBootstrapFailed(final Exception exception) {
+
+    }
+
+}
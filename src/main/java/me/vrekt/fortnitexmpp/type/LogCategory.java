@@ -0,0 +1,41 @@
+package me.vrekt.fortnitexmpp.type;
+
+/**
+ * Categories of debug logging that can be toggled individually.
+ */
+public enum LogCategory {
+
+    /**
+     * Connection lifecycle, connecting, authentication, reconnects and the roster.
+     */
+    CONNECTION,
+    /**
+     * Party state changes, parties created, access keys changed, etc.
+     */
+    PARTY,
+    /**
+     * Every party request sent or received along with its payload.
+     */
+    PARTY_WIRE,
+    /**
+     * Friend related actions.
+     */
+    FRIEND,
+    /**
+     * Every friend message received along with its payload.
+     */
+    FRIEND_WIRE;
+
+    /**
+     * A mask containing every category.
+     */
+    public static final int ALL = (1 << values().length) - 1;
+
+    /**
+     * @return the bit used to represent this category in a mask.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+}
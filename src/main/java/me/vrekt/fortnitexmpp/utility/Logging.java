@@ -2,8 +2,17 @@ package me.vrekt.fortnitexmpp.utility;
 
 import com.google.common.flogger.FluentLogger;
 
+/**
+ * @deprecated logging is switched per {@link me.vrekt.fortnitexmpp.type.LogCategory} in
+ * {@link me.vrekt.fortnitexmpp.provider.FortniteXMPPConfiguration}, pass arguments to the logger so they are only formatted when logged.
+ */
+@Deprecated
 public final class Logging {
 
+    /**
+     * @deprecated check the category with {@code FortniteXMPPConfiguration#doEnableLogging(me.vrekt.fortnitexmpp.type.LogCategory)} and log directly.
+     */
+    @Deprecated
     public static void logInfoIfApplicable(FluentLogger.Api logger, boolean log, String message) {
         if (!log) return;
         logger.log(message);
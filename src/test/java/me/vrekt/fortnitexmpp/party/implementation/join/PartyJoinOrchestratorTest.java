@@ -0,0 +1,106 @@
+package me.vrekt.fortnitexmpp.party.implementation.join;
+
+import me.vrekt.fortnitexmpp.exception.PartyJoinException;
+import me.vrekt.fortnitexmpp.party.PartyResource;
+import me.vrekt.fortnitexmpp.party.implementation.Party;
+import me.vrekt.fortnitexmpp.party.implementation.request.PendingRequests;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinAcknowledged;
+import me.vrekt.fortnitexmpp.party.implementation.request.authentication.PartyJoinRequest;
+import me.vrekt.fortnitexmpp.party.type.PartyType;
+import org.junit.Before;
+import org.junit.Test;
+import org.jxmpp.jid.Jid;
+import org.jxmpp.jid.impl.JidCreate;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class PartyJoinOrchestratorTest {
+
+    private static final String PARTY_ID = "party";
+    private static final Jid LEADER = JidCreate.fromOrThrowUnchecked("leader@prod.ol.epicgames.com/V2:Fortnite:WIN");
+
+    private final PendingRequests pending = new PendingRequests(16);
+    private final AtomicInteger joinRequests = new AtomicInteger(), acknowledgements = new AtomicInteger();
+    // invoked after every join request is sent.
+    private final CopyOnWriteArrayList<Runnable> onJoinRequest = new CopyOnWriteArrayList<>();
+
+    private PartyJoinOrchestrator orchestrator;
+
+    @Before
+    public void setUp() {
+        orchestrator = new PartyJoinOrchestrator(50, TimeUnit.MILLISECONDS, 2);
+        orchestrator.attach(resource(), "display name");
+    }
+
+    @Test
+    public void timedOutRequestIsSentAgainUntilRetriesAreUsedUp() throws InterruptedException {
+        final var future = orchestrator.join(LEADER, PARTY_ID, "key", null, 1);
+        try {
+            future.get(2, TimeUnit.SECONDS);
+            fail("The join should time out.");
+        } catch (final ExecutionException exception) {
+            assertTrue(exception.getCause() instanceof PartyJoinException);
+        } catch (final TimeoutException exception) {
+            fail("The join never completed.");
+        }
+
+        assertEquals(3, joinRequests.get());
+        assertEquals(0, orchestrator.pending());
+    }
+
+    @Test
+    public void requestApprovedAfterRetryIsAcknowledged() throws Exception {
+        // only the second join request is answered.
+        onJoinRequest.add(() -> {
+            if (joinRequests.get() == 2) pending.complete(PartyType.PARTY_JOIN_REQUEST, PARTY_ID, LEADER, Set.of());
+        });
+        final var future = orchestrator.join(LEADER, PARTY_ID, "key", null, 1);
+        // wait for the acknowledgement to be sent and answer it.
+        final var deadline = System.currentTimeMillis() + 2000;
+        while (acknowledgements.get() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        pending.complete(PartyType.PARTY_JOIN_ACKNOWLEDGED, PARTY_ID, LEADER, null);
+
+        final var result = future.get(2, TimeUnit.SECONDS);
+        assertEquals(2, result.attempts());
+        assertEquals(2, joinRequests.get());
+        assertEquals(1, acknowledgements.get());
+    }
+
+    /**
+     * A party resource that only correlates join requests and acknowledgements, sends are counted instead.
+     */
+    private PartyResource resource() {
+        return (PartyResource) Proxy.newProxyInstance(PartyResource.class.getClassLoader(), new Class[]{PartyResource.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "requestToJoin": {
+                    final var request = (PartyJoinRequest) args[0];
+                    final var future = pending.register(request.type(), request.partyId(), (Jid) args[1], (long) args[2], (TimeUnit) args[3]);
+                    // like the party resource, a request is only sent if its future is fresh.
+                    if (future.isDone()) return future;
+                    joinRequests.incrementAndGet();
+                    onJoinRequest.forEach(Runnable::run);
+                    return future;
+                }
+                case "acknowledgeJoin": {
+                    final var request = (PartyJoinAcknowledged) args[0];
+                    final var future = pending.<Party>register(request.type(), request.partyId(), (Jid) args[1], (long) args[2], (TimeUnit) args[3]);
+                    if (!future.isDone()) acknowledgements.incrementAndGet();
+                    return future;
+                }
+                default:
+                    return null;
+            }
+        });
+    }
+
+}